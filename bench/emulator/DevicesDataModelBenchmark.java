@@ -0,0 +1,116 @@
+package emulator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures device lookup and the JSON persistence round-trip of the devices data model.
+ *
+ * <p>Persistence benchmarks write {@code device_config.json} into the working directory, which the
+ * {@code bench} Ant target points at {@code build/bench-work}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DevicesDataModelBenchmark {
+
+    private static final String[] EXTENSIONS = {"dimg", "tar", "tgz", "img", "iso", "md5", "md1"};
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int deviceCount;
+
+    private DevicesDataModel devicesDataModel;
+    private UUID[] knownIds;
+    private UUID missingId;
+    private ZonedDateTime now;
+    private int cursor;
+
+    @Setup
+    public void populateModel() throws IOException {
+        Random random = new Random(42);
+        now = ZonedDateTime.now(ZoneId.of("UTC"));
+
+        devicesDataModel = new DevicesDataModel();
+        knownIds = new UUID[deviceCount];
+
+        for (int i = 0; i < deviceCount; ++i) {
+            UUID uuid = Device.deriveUniqueIdentifier();
+            String extension = EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+            double totalSpaceGB = 4 + random.nextInt(60);
+
+            knownIds[i] = uuid;
+            devicesDataModel.appendNewDeviceEntry(uuid, "device-" + i + "." + extension, extension,
+                totalSpaceGB, random.nextDouble() * totalSpaceGB, now.minusMinutes(random.nextInt(525_600)));
+        }
+
+        missingId = Device.deriveUniqueIdentifier();
+        devicesDataModel.reindex();
+
+        // Seed the config file so deserialization can run on its own
+        devicesDataModel.serializeToJsonFile();
+    }
+
+    @Benchmark
+    public Device searchByIdHit() {
+        UUID id = knownIds[cursor];
+        cursor = (cursor + 1) % knownIds.length;
+        return devicesDataModel.searchById(id);
+    }
+
+    @Benchmark
+    public Device searchByIdMiss() {
+        return devicesDataModel.searchById(missingId);
+    }
+
+    @Benchmark
+    public DeviceQuery.Result queryFreeSpaceRangePage() {
+        return devicesDataModel.query(new DeviceQuery()
+            .withFreeSpaceBetween(10.0, 20.0)
+            .sortedBy(DeviceQuery.Column.FREE_SPACE, true)
+            .page(0, 50));
+    }
+
+    @Benchmark
+    public DeviceQuery.Result queryRecentlyUsedByExtension() {
+        return devicesDataModel.query(new DeviceQuery()
+            .withFileExtension("img")
+            .withLastUsedBetween(now.minusDays(30), null)
+            .sortedBy(DeviceQuery.Column.LAST_USED, true));
+    }
+
+    @Benchmark
+    public DeviceQuery.Result querySortedByFileName() {
+        return devicesDataModel.query(new DeviceQuery()
+            .sortedBy(DeviceQuery.Column.FILE_NAME, false)
+            .page(0, 100));
+    }
+
+    @Benchmark
+    public void serializeToJsonFile() throws IOException {
+        devicesDataModel.serializeToJsonFile();
+    }
+
+    @Benchmark
+    public DevicesDataModel deserializeFromJsonFile() throws IOException {
+        return DevicesDataModel.deserializeFromJsonFile();
+    }
+
+    @Benchmark
+    public DevicesDataModel jsonRoundTrip() throws IOException {
+        devicesDataModel.serializeToJsonFile();
+        return DevicesDataModel.deserializeFromJsonFile();
+    }
+}
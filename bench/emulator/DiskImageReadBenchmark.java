@@ -0,0 +1,138 @@
+package emulator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares random 4K read latency and sequential throughput of {@code .dimg} images against the raw image they were converted from.
+ */
+@State(Scope.Benchmark)
+public class DiskImageReadBenchmark {
+
+    private static final int BLOCK_SIZE = 4096;
+    private static final int SEQUENTIAL_READ_SIZE = 1024 * 1024;
+    private static final long IMAGE_SIZE = 256L * 1024 * 1024;
+
+    @Param({"DEFLATE", "LZ4", "ZSTD"})
+    public String codec;
+
+    private Path directory;
+    private DiskImage rawImage;
+    private DiskImage dimgImage;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void createImages() throws IOException {
+        directory = Files.createTempDirectory("dimg-bench");
+        Path rawPath = directory.resolve("disk.img");
+        Path dimgPath = directory.resolve("disk.dimg");
+
+        writeRawImage(rawPath);
+        DimgImage.convert(rawPath, dimgPath, DimgImage.Codec.valueOf(codec), DimgImage.DEFAULT_CHUNK_SIZE);
+
+        rawImage = DiskImage.open(rawPath);
+        dimgImage = DiskImage.open(dimgPath);
+        random = new Random(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteImages() throws IOException {
+        rawImage.close();
+        dimgImage.close();
+
+        Files.deleteIfExists(directory.resolve("disk.img"));
+        Files.deleteIfExists(directory.resolve("disk.dimg"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ByteBuffer randomReadRaw() throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        rawImage.read(randomBlockOffset(), block);
+        return block;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ByteBuffer randomReadDimg() throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        dimgImage.read(randomBlockOffset(), block);
+        return block;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long sequentialReadRaw() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SEQUENTIAL_READ_SIZE);
+        long position = 0;
+        int count;
+
+        while ((count = rawImage.read(position, buffer)) > 0) {
+            position += count;
+            buffer.clear();
+        }
+
+        return position;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long sequentialReadDimg() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SEQUENTIAL_READ_SIZE);
+        long position = 0;
+        int count;
+
+        while ((count = dimgImage.read(position, buffer)) > 0) {
+            position += count;
+            buffer.clear();
+        }
+
+        return position;
+    }
+
+    private long randomBlockOffset() {
+        return (long) random.nextInt((int) (IMAGE_SIZE / BLOCK_SIZE)) * BLOCK_SIZE;
+    }
+
+    private static void writeRawImage(Path rawImage) throws IOException {
+        Random contents = new Random(7);
+        byte[] chunk = new byte[DimgImage.DEFAULT_CHUNK_SIZE];
+
+        try (FileChannel out = FileChannel.open(rawImage, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long written = 0; written < IMAGE_SIZE; written += chunk.length) {
+                // Mix zeroed, text-like and random regions, roughly as a populated filesystem image would
+                int kind = contents.nextInt(4);
+                for (int i = 0; i < chunk.length; ++i) {
+                    chunk[i] = kind == 0 ? 0 : kind == 3 ? (byte) contents.nextInt() : (byte) ('a' + contents.nextInt(kind * 8));
+                }
+
+                ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package emulator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures how quickly the boot image file filters classify a large directory listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileFilterBenchmark {
+
+    private static final String[] SUFFIXES = {".dimg", ".tar", ".tar.gz", ".tgz", ".img", ".iso", ".TAR.MD5", ".md1", ".txt", ".zip", ".apk", ""};
+
+    @Param({"1000", "10000", "50000"})
+    public int fileCount;
+
+    private Path directory;
+    private File[] listing;
+
+    @Setup
+    public void createListing() throws IOException {
+        Random random = new Random(42);
+        directory = Files.createTempDirectory("file-filter-bench");
+
+        for (int i = 0; i < fileCount; ++i) {
+            Path entry = directory.resolve("entry-" + i + SUFFIXES[random.nextInt(SUFFIXES.length)]);
+
+            // Roughly one in fifty entries is a sub-directory, as in a typical downloads folder
+            if (random.nextInt(50) == 0) {
+                Files.createDirectory(entry);
+            } else {
+                Files.createFile(entry);
+            }
+        }
+
+        listing = directory.toFile().listFiles();
+    }
+
+    @TearDown
+    public void deleteListing() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public int acceptSingleType() {
+        ChoosableFileFilterImpl filter = FileTypes.IMG.getChoosableFileFilter();
+        int accepted = 0;
+
+        for (File file : listing) {
+            if (filter.accept(file)) {
+                ++accepted;
+            }
+        }
+
+        return accepted;
+    }
+
+    @Benchmark
+    public int acceptAllTypes() {
+        int accepted = 0;
+
+        for (File file : listing) {
+            for (FileTypes fileType : FileTypes.values()) {
+                if (fileType.getChoosableFileFilter().accept(file)) {
+                    ++accepted;
+                    break;
+                }
+            }
+        }
+
+        return accepted;
+    }
+}
@@ -0,0 +1,59 @@
+package emulator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the BGR24 to RGB pixel conversion performed for every frame read from the pipe.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FrameDecodeBenchmark {
+
+    @Param({"800x600", "1280x720", "1920x1080"})
+    public String resolution;
+
+    private int width;
+    private int height;
+    private ByteBuffer heapBuffer;
+    private ByteBuffer directBuffer;
+    private int[] pixels;
+
+    @Setup
+    public void prepareFrame() {
+        String[] dimensions = resolution.split("x");
+        width = Integer.parseInt(dimensions[0]);
+        height = Integer.parseInt(dimensions[1]);
+
+        byte[] raw = new byte[3 * width * height];
+        new Random(42).nextBytes(raw);
+
+        heapBuffer = ByteBuffer.wrap(raw);
+        directBuffer = ByteBuffer.allocateDirect(raw.length);
+        directBuffer.put(raw).rewind();
+        pixels = new int[width * height];
+    }
+
+    @Benchmark
+    public int[] decodeHeapBuffer() {
+        DirectFrameExtractor.decodeBgrFrame(heapBuffer, width, height, pixels);
+        return pixels;
+    }
+
+    @Benchmark
+    public int[] decodeDirectBuffer() {
+        DirectFrameExtractor.decodeBgrFrame(directBuffer, width, height, pixels);
+        return pixels;
+    }
+}
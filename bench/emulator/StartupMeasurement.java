@@ -0,0 +1,122 @@
+package emulator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cold startup of the packaged application against a seeded device configuration.
+ *
+ * <p>Writes a {@code device_config.json} with the requested number of devices into the working directory,
+ * which the {@code startup-bench} Ant target points at {@code build/startup-work}, then launches the jar
+ * repeatedly with {@code --exit-after-startup} and reports the median of every startup phase. The
+ * application opens a window, so a display is required.</p>
+ *
+ * <p>Arguments: path of the application jar, device count (default 10000), number of launches (default 5).</p>
+ */
+public class StartupMeasurement {
+
+    private static final String[] EXTENSIONS = {"dimg", "tar", "tgz", "img", "iso", "md5", "md1"};
+    private static final long LAUNCH_TIMEOUT_SECONDS = 120;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: StartupMeasurement <application jar> [device count] [launches]");
+            System.exit(2);
+        }
+
+        Path jar = Paths.get(args[0]).toAbsolutePath();
+        int deviceCount = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int launches = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        seedConfiguration(deviceCount);
+
+        Map<String, List<Long>> phases = new LinkedHashMap<>();
+        for (int launch = 1; launch <= launches; ++launch) {
+            Map<String, Long> timings = launch(jar);
+            System.out.println("Launch " + launch + ": " + timings);
+            timings.forEach((phase, millis) -> phases.computeIfAbsent(phase, key -> new ArrayList<>()).add(millis));
+        }
+
+        System.out.println();
+        System.out.println("Median over " + launches + " launches with " + deviceCount + " devices:");
+        phases.forEach((phase, samples) -> System.out.println(String.format("  %-26s %6d ms", phase, median(samples))));
+    }
+
+    private static void seedConfiguration(int deviceCount) throws IOException {
+        Random random = new Random(42);
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+        DevicesDataModel devicesDataModel = new DevicesDataModel();
+
+        for (int i = 0; i < deviceCount; ++i) {
+            String extension = EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+            double totalSpaceGB = 4 + random.nextInt(60);
+
+            devicesDataModel.appendNewDeviceEntry(Device.deriveUniqueIdentifier(), "device-" + i + "." + extension, extension,
+                totalSpaceGB, random.nextDouble() * totalSpaceGB, now.minusMinutes(random.nextInt(525_600)));
+        }
+
+        devicesDataModel.serializeToJsonFile();
+    }
+
+    private static Map<String, Long> launch(Path jar) throws IOException, InterruptedException {
+        Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+        Process process = new ProcessBuilder(java.toString(), "-jar", jar.toString(), EmulatorMainWindow.EXIT_AFTER_STARTUP_FLAG)
+            .redirectErrorStream(true)
+            .start();
+
+        Map<String, Long> timings = new LinkedHashMap<>();
+        List<String> output = new ArrayList<>();
+
+        // Drain the output on its own thread so a hung launch still runs into the timeout below
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    String[] fields = line.split("\t");
+
+                    if (fields.length == 3 && fields[0].equals(StartupTimings.PHASE_LINE_PREFIX)) {
+                        timings.put(fields[1], Long.parseLong(fields[2]));
+                    } else {
+                        output.add(line);
+                    }
+                }
+            } catch (IOException ignore) {
+                // The stream closes when the process is killed
+            }
+        }, "startup-output-reader");
+        reader.start();
+
+        if (!process.waitFor(LAUNCH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new IOException("Application did not exit within " + LAUNCH_TIMEOUT_SECONDS + " seconds.");
+        }
+
+        reader.join();
+
+        if (process.exitValue() != 0 || timings.isEmpty()) {
+            throw new IOException("Application exited with status " + process.exitValue() + " without reporting startup timings:\n"
+                + String.join("\n", output));
+        }
+
+        return timings;
+    }
+
+    private static long median(List<Long> samples) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
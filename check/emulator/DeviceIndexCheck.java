@@ -0,0 +1,231 @@
+package emulator;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Regression check for the indexes behind {@link DevicesDataModel#query(DeviceQuery)} and
+ * {@link DevicesDataModel#searchById(UUID)}.
+ *
+ * <p>Registers a set of devices, then applies a long run of random changes through the public setters and
+ * model methods, including nulls and identifier changes. Every few changes it runs random queries and checks
+ * each answer against a brute-force filter and sort over {@link DevicesDataModel#devices()}. Any mismatch
+ * ends the run with a non-zero exit status. The {@code check} Ant target runs it.</p>
+ *
+ * <p>Arguments: number of changes (default 20000), initial device count (default 2000), random seed (default 1).</p>
+ */
+public class DeviceIndexCheck {
+
+    private static final String[] EXTENSIONS = {"dimg", "tar", "tgz", "img", "ISO", "md5", "md1", null};
+    private static final String[] OPERATING_SYSTEMS = {"Android 9", "Android 12", "Android 14", null};
+    private static final int CHANGES_PER_VERIFICATION = 50;
+    private static final int QUERIES_PER_VERIFICATION = 8;
+    private static final ZonedDateTime EPOCH = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    private final Random random;
+    private final DevicesDataModel devicesDataModel = new DevicesDataModel();
+    private final List<UUID> retiredIds = new ArrayList<>();
+    private int queriesChecked;
+
+    private DeviceIndexCheck(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) {
+        int changes = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int initialDevices = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        DeviceIndexCheck check = new DeviceIndexCheck(seed);
+
+        try {
+            check.run(changes, initialDevices);
+        } catch (IllegalStateException e) {
+            System.err.println("Device index check failed (seed " + seed + "): " + e.getMessage());
+            System.exit(1);
+        }
+
+        System.out.println("Device index check passed: " + changes + " changes over " + check.devicesDataModel.count()
+            + " devices, " + check.queriesChecked + " queries compared against a full scan.");
+    }
+
+    private void run(int changes, int initialDevices) {
+        for (int i = 0; i < initialDevices; ++i) {
+            register();
+        }
+
+        verify();
+
+        for (int change = 1; change <= changes; ++change) {
+            applyRandomChange();
+
+            if (change % CHANGES_PER_VERIFICATION == 0) {
+                verify();
+            }
+        }
+
+        verify();
+    }
+
+    private void register() {
+        double totalSpaceGB = 4 + random.nextInt(60);
+        devicesDataModel.appendNewDeviceEntry(Device.deriveUniqueIdentifier(), "device-" + random.nextInt(100_000) + ".img",
+            pick(EXTENSIONS), totalSpaceGB, randomSpace(), randomMoment());
+    }
+
+    private void applyRandomChange() {
+        Device device = devicesDataModel.itemAtIndex(random.nextInt(devicesDataModel.count()));
+
+        switch (random.nextInt(9)) {
+            case 0:
+                register();
+                break;
+            case 1:
+                device.setFreeSpaceGB(random.nextInt(10) == 0 ? null : randomSpace());
+                break;
+            case 2:
+                devicesDataModel.updateDeviceSpace(device, randomSpace(), random.nextInt(10) == 0 ? null : randomSpace());
+                break;
+            case 3:
+                device.setLastUsed(random.nextInt(10) == 0 ? null : randomMoment());
+                break;
+            case 4:
+                devicesDataModel.updateLastUsed(device, randomMoment());
+                break;
+            case 5:
+                device.setFileExtension(pick(EXTENSIONS));
+                break;
+            case 6:
+                device.updateBootImageFilePath("/images/device-" + random.nextInt(100_000) + "." + pick(EXTENSIONS));
+                break;
+            case 7:
+                retiredIds.add(device.getId());
+                device.setId(Device.deriveUniqueIdentifier());
+                break;
+            default:
+                // Non-indexed fields must not disturb the indexes either
+                device.setOperatingSystem(pick(OPERATING_SYSTEMS));
+                device.setTotalSpaceGB(randomSpace());
+                break;
+        }
+    }
+
+    private void verify() {
+        List<Device> devices = new ArrayList<>(devicesDataModel.devices());
+
+        for (Device device : devices) {
+            if (devicesDataModel.searchById(device.getId()) != device) {
+                throw new IllegalStateException("searchById(" + device.getId() + ") does not return the registered device.");
+            }
+        }
+
+        for (UUID retiredId : retiredIds) {
+            if (devicesDataModel.searchById(retiredId) != null) {
+                throw new IllegalStateException("searchById still finds the replaced identifier " + retiredId + ".");
+            }
+        }
+
+        for (int i = 0; i < QUERIES_PER_VERIFICATION; ++i) {
+            verifyQuery(randomQuery(), devices);
+        }
+    }
+
+    private void verifyQuery(DeviceQuery query, List<Device> devices) {
+        DeviceQuery.Result result = devicesDataModel.query(query);
+        List<Device> expected = devices.stream().filter(query::matches).collect(Collectors.toList());
+        int totalMatches = expected.size();
+
+        if (result.getTotalMatches() != totalMatches) {
+            throw new IllegalStateException(describe(query) + " reported " + result.getTotalMatches() + " matches, a full scan finds " + totalMatches + ".");
+        }
+
+        if (query.getSortColumn() == null) {
+            // Unsorted results follow whichever index served them, so only their membership is defined
+            if (!identitySet(result.getDevices()).equals(identitySet(expected)) || result.getDevices().size() != expected.size()) {
+                throw new IllegalStateException(describe(query) + " returned a different set of devices than a full scan.");
+            }
+            ++queriesChecked;
+            return;
+        }
+
+        Comparator<Device> order = query.getSortColumn().comparator();
+        expected.sort(query.isDescending() ? order.reversed() : order);
+
+        int from = Math.min(query.getOffset(), expected.size());
+        int to = (int) Math.min((long) from + query.getLimit(), expected.size());
+        List<Device> page = expected.subList(from, to);
+        List<Device> actual = result.getDevices();
+
+        for (int i = 0; i < Math.max(page.size(), actual.size()); ++i) {
+            if (i >= page.size() || i >= actual.size() || page.get(i) != actual.get(i)) {
+                throw new IllegalStateException(describe(query) + " differs from a full scan at row " + (from + i) + ".");
+            }
+        }
+
+        ++queriesChecked;
+    }
+
+    private DeviceQuery randomQuery() {
+        DeviceQuery query = new DeviceQuery();
+
+        if (random.nextInt(3) == 0) {
+            query.withFileExtension(pick(EXTENSIONS));
+        }
+        if (random.nextInt(4) == 0) {
+            query.withOperatingSystem(pick(OPERATING_SYSTEMS));
+        }
+        if (random.nextInt(2) == 0) {
+            Double low = random.nextInt(4) == 0 ? null : randomSpace();
+            query.withFreeSpaceBetween(low, random.nextInt(4) == 0 ? null : (low == null ? 0 : low) + random.nextDouble() * 30);
+        }
+        if (random.nextInt(2) == 0) {
+            ZonedDateTime after = random.nextInt(4) == 0 ? null : randomMoment();
+            query.withLastUsedBetween(after, random.nextInt(4) == 0 ? null : (after == null ? EPOCH : after).plusDays(random.nextInt(200)));
+        }
+
+        if (random.nextInt(5) != 0) {
+            query.sortedBy(pick(DeviceQuery.Column.values()), random.nextBoolean());
+
+            if (random.nextBoolean()) {
+                query.page(random.nextInt(200), 1 + random.nextInt(100));
+            }
+        }
+
+        return query;
+    }
+
+    private static String describe(DeviceQuery query) {
+        return String.format("Query[extension=%s, os=%s, free=%s..%s, used=%s..%s, sort=%s%s, page=%d+%d]",
+            query.getFileExtension(), query.getOperatingSystem(), query.getMinFreeSpaceGB(), query.getMaxFreeSpaceGB(),
+            query.getUsedAfter(), query.getUsedBefore(), query.getSortColumn(), query.isDescending() ? " desc" : "",
+            query.getOffset(), query.getLimit());
+    }
+
+    private static Set<Device> identitySet(List<Device> devices) {
+        Set<Device> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(devices);
+        return set;
+    }
+
+    private double randomSpace() {
+        // Coarse values so ties, which the indexes break on the identifier, come up often
+        return random.nextInt(64) / 2.0;
+    }
+
+    private ZonedDateTime randomMoment() {
+        return EPOCH.plusHours(random.nextInt(24 * 365));
+    }
+
+    private <T> T pick(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
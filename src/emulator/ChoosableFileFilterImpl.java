@@ -0,0 +1,68 @@
+package emulator;
+
+import javax.swing.filechooser.FileFilter;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * File chooser filter accepting directories and files ending with one of a set of extensions, ignoring case.
+ */
+class ChoosableFileFilterImpl extends FileFilter {
+
+    private final String description;
+    private final List<String> extensions;
+
+    ChoosableFileFilterImpl(String description, String... extensions) {
+        this.description = description;
+        this.extensions = Arrays.stream(extensions).map(extension -> extension.toLowerCase(Locale.ROOT)).collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean accept(File file) {
+        if (file.isDirectory()) {
+            return true;
+        }
+
+        return matches(file.getName());
+    }
+
+    /**
+     * Tests a file name against the extensions of this filter, ignoring case.
+     *
+     * @param fileName Name to test.
+     * @return True if the name ends with one of the extensions.
+     */
+    boolean matches(String fileName) {
+        String normalized = fileName.toLowerCase(Locale.ROOT);
+        return extensions.stream().anyMatch(normalized::endsWith);
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return descriptionsToString();
+    }
+
+    String descriptionsToString() {
+        StringBuilder sb = new StringBuilder();
+
+        IntStream.range(0, extensions.size())
+            .forEach(index -> {
+                sb.append(extensions.get(index));
+
+                if (index != extensions.size() - 1) {
+                    sb.append(", ");
+                }
+            });
+
+        return sb.toString();
+    }
+}
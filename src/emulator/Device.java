@@ -0,0 +1,285 @@
+package emulator;
+
+import com.google.gson.annotations.SerializedName;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.File;
+import java.io.Serializable;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+
+public class Device implements Serializable {
+
+    @SerializedName("identifier")
+    private UUID id;
+
+    @SerializedName("fileName")
+    private String fileName;
+
+    @SerializedName("fileExtension")
+    private String fileExtension;
+
+    @SerializedName("totalSpaceGB")
+    private Double totalSpaceGB;
+
+    @SerializedName("freeSpaceGB")
+    private Double freeSpaceGB;
+
+    @SerializedName("lastUsed")
+    private ZonedDateTime lastUsed;
+
+    @SerializedName("operatingSystem")
+    private String operatingSystem;
+
+    @SerializedName("deviceName")
+    private String deviceName;
+
+    @SerializedName("bootImage")
+    private String bootImage;
+
+    @SerializedName("enableVgpuAcceleration")
+    private Boolean enableVgpuAcceleration;
+
+    @SerializedName("vRam")
+    private Integer vRam;
+
+    @SerializedName("screenWidth")
+    private Integer screenWidth;
+
+    @SerializedName("screenHeight")
+    private Integer screenHeight;
+
+    @SerializedName("snapshotSizeBytes")
+    private Long snapshotSizeBytes;
+
+    @SerializedName("snapshotCreated")
+    private ZonedDateTime snapshotCreated;
+
+    // Model indexing this device; changes to indexed fields are routed through it so its indexes stay valid
+    private transient DevicesDataModel owner;
+
+    /**
+     * Primary constructor instantiating a brand-new device entry.
+     *
+     * @param uuid           Unique identifier.
+     * @param fileName       Human-friendly title of the boot image file.
+     * @param fileExtension  Associated extension suffix of the boot image file.
+     * @param totalSpaceGB    Compute volume attributed to the device.
+     * @param freeSpaceGB     Amount of spare capacity left vacant.
+     * @param lastUsed       Moment tracking the last time the device was utilized.
+     */
+    public Device(UUID uuid, String fileName, String fileExtension, double totalSpaceGB, double freeSpaceGB, ZonedDateTime lastUsed) {
+        this.id = uuid;
+        this.fileName = fileName;
+        this.fileExtension = fileExtension;
+        this.totalSpaceGB = totalSpaceGB;
+        this.freeSpaceGB = freeSpaceGB;
+        this.lastUsed = lastUsed;
+    }
+
+    /**
+     * Copy constructor producing an unregistered duplicate of another device.
+     *
+     * @param other Device to copy.
+     */
+    Device(Device other) {
+        this.id = other.id;
+        this.fileName = other.fileName;
+        this.fileExtension = other.fileExtension;
+        this.totalSpaceGB = other.totalSpaceGB;
+        this.freeSpaceGB = other.freeSpaceGB;
+        this.lastUsed = other.lastUsed;
+        this.operatingSystem = other.operatingSystem;
+        this.deviceName = other.deviceName;
+        this.bootImage = other.bootImage;
+        this.enableVgpuAcceleration = other.enableVgpuAcceleration;
+        this.vRam = other.vRam;
+        this.screenWidth = other.screenWidth;
+        this.screenHeight = other.screenHeight;
+        this.snapshotSizeBytes = other.snapshotSizeBytes;
+        this.snapshotCreated = other.snapshotCreated;
+    }
+
+    /**
+     * Derives a random alphanumeric string acting as a universally unique identifier.
+     *
+     * @return Randomized alpha-numeric sequence.
+     */
+    public static UUID deriveUniqueIdentifier() {
+        return UUID.randomUUID();
+    }
+
+    /**
+     * Responsible for serializing boot image file paths to strings.
+     *
+     * @param newFilePath Absolute URI of the boot image file.
+     */
+    public void updateBootImageFilePath(String newFilePath) {
+        changeIndexedFields(id, () -> {
+            this.bootImage = newFilePath;
+            this.fileName = new File(newFilePath).getName();
+            this.fileExtension = FilenameUtils.getExtension(newFilePath);
+        });
+    }
+
+    /**
+     * Binds the device to the model that indexes it.
+     *
+     * @param owner Model the device is registered with.
+     */
+    void attachTo(DevicesDataModel owner) {
+        this.owner = owner;
+    }
+
+    private void changeIndexedFields(UUID newId, Runnable change) {
+        DevicesDataModel model = owner;
+
+        if (model == null) {
+            change.run();
+        } else {
+            model.rekey(this, newId, change);
+        }
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        changeIndexedFields(id, () -> this.id = id);
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public void setFileExtension(String fileExtension) {
+        changeIndexedFields(id, () -> this.fileExtension = fileExtension);
+    }
+
+    public Double getTotalSpaceGB() {
+        return totalSpaceGB;
+    }
+
+    public void setTotalSpaceGB(Double totalSpaceGB) {
+        this.totalSpaceGB = totalSpaceGB;
+    }
+
+    public Double getFreeSpaceGB() {
+        return freeSpaceGB;
+    }
+
+    public void setFreeSpaceGB(Double freeSpaceGB) {
+        changeIndexedFields(id, () -> this.freeSpaceGB = freeSpaceGB);
+    }
+
+    public ZonedDateTime getLastUsed() {
+        return lastUsed;
+    }
+
+    public void setLastUsed(ZonedDateTime lastUsed) {
+        changeIndexedFields(id, () -> this.lastUsed = lastUsed);
+    }
+
+    public String getOperatingSystem() {
+        return operatingSystem;
+    }
+
+    public void setOperatingSystem(String operatingSystem) {
+        this.operatingSystem = operatingSystem;
+    }
+
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    public void setDeviceName(String deviceName) {
+        this.deviceName = deviceName;
+    }
+
+    public String getBootImage() {
+        return bootImage;
+    }
+
+    public void setBootImage(String bootImage) {
+        this.bootImage = bootImage;
+    }
+
+    public Boolean isEnableVgpuAcceleration() {
+        return enableVgpuAcceleration;
+    }
+
+    public void setEnableVgpuAcceleration(Boolean enableVgpuAcceleration) {
+        this.enableVgpuAcceleration = enableVgpuAcceleration;
+    }
+
+    public Integer getVRam() {
+        return vRam;
+    }
+
+    public void setVRam(Integer vRam) {
+        this.vRam = vRam;
+    }
+
+    public Integer getScreenWidth() {
+        return screenWidth;
+    }
+
+    public void setScreenWidth(Integer screenWidth) {
+        this.screenWidth = screenWidth;
+    }
+
+    public Integer getScreenHeight() {
+        return screenHeight;
+    }
+
+    public void setScreenHeight(Integer screenHeight) {
+        this.screenHeight = screenHeight;
+    }
+
+    public Long getSnapshotSizeBytes() {
+        return snapshotSizeBytes;
+    }
+
+    public ZonedDateTime getSnapshotCreated() {
+        return snapshotCreated;
+    }
+
+    /**
+     * Indicates whether a warm boot snapshot has been captured for this device.
+     *
+     * @return True if snapshot metadata is present.
+     */
+    public boolean hasSnapshot() {
+        return snapshotCreated != null;
+    }
+
+    /**
+     * Stamps the metadata of a freshly captured snapshot.
+     *
+     * @param sizeBytes On-disk size of the compressed snapshot file.
+     */
+    void recordSnapshot(long sizeBytes) {
+        this.snapshotSizeBytes = sizeBytes;
+        this.snapshotCreated = ZonedDateTime.now(ZoneId.of("UTC"));
+    }
+
+    /**
+     * Forgets the snapshot metadata once the snapshot file has been discarded.
+     */
+    void clearSnapshot() {
+        this.snapshotSizeBytes = null;
+        this.snapshotCreated = null;
+    }
+}
@@ -0,0 +1,56 @@
+package emulator;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+
+/**
+ * Control plane navigating the lifecycle of the virtual devices.
+ */
+class DeviceControllerGui {
+
+    // Declare variables
+    private final JFrame parentFrame;
+    private final DevicesDataModel devicesDataModel;
+
+    /**
+     * Secondary constructor accepting ownership hierarchy roots and models for coordinating updates.
+     *
+     * @param parentFrame Parent container holding child panels.
+     * @param devicesDataModel State management hub.
+     */
+    public DeviceControllerGui(JFrame parentFrame, DevicesDataModel devicesDataModel) {
+        this.parentFrame = parentFrame;
+        this.devicesDataModel = devicesDataModel;
+
+        // Register hotkeys
+        registerHotKeyListeners();
+
+        // Monitor hotkey presses
+        monitorHotKeys();
+    }
+
+    /**
+     * Hooks listeners to detect hotkey combinations.
+     */
+    private void registerHotKeyListeners() {
+        InputMap map = parentFrame.getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        map.put(KeyStroke.getKeyStroke("ctrl R"), "startDevice");
+    }
+
+    /**
+     * Monitors keyboard inputs scanning for prescribed hotkey sequences.
+     */
+    private void monitorHotKeys() {
+        ActionMap map = parentFrame.getRootPane().getActionMap();
+
+        map.put("startDevice", new StartDeviceAction());
+    }
+
+    private class StartDeviceAction extends AbstractAction {
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            // TODO: Handle start device logic
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package emulator;
+
+import org.apache.commons.io.FilenameUtils;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * User interface catering to users wanting to specify a boot image file.
+ */
+class DeviceCreatorGui {
+
+    // Declare variables
+    private final JFrame parentFrame;
+    private final DevicesDataModel devicesDataModel;
+    private JFileChooser fileChooser;
+
+    /**
+     * Secondary constructor receiving requisite references for establishing communication channels.
+     * The file chooser is only built once {@link #chooseBootImage()} is first called.
+     *
+     * @param parentFrame Ownership hierarchy root node.
+     * @param devicesDataModel Model responsible for maintaining the state of device records.
+     */
+    public DeviceCreatorGui(JFrame parentFrame, DevicesDataModel devicesDataModel) {
+        this.parentFrame = parentFrame;
+        this.devicesDataModel = devicesDataModel;
+    }
+
+    /**
+     * Prompts for a boot image and registers a new device for it.
+     *
+     * @throws IOException Propagated from persisting the updated device configuration.
+     */
+    public void chooseBootImage() throws IOException {
+        // Initialize UI components on first use and reuse them afterwards
+        if (fileChooser == null) {
+            fileChooser = new JFileChooser();
+            fileChooser.setAcceptAllFileFilterUsed(false);
+
+            Arrays.stream(FileTypes.values()).forEach(fileType -> fileChooser.addChoosableFileFilter(fileType.getChoosableFileFilter()));
+        }
+
+        int result = fileChooser.showOpenDialog(parentFrame);
+
+        if (result == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            assert file != null;
+
+            UUID uuid = Device.deriveUniqueIdentifier();
+            String fileName = file.getName();
+            String fileExtension = FilenameUtils.getExtension(fileName);
+
+            // TODO: Determine boot image size to compute available space
+            double totalSpaceGB = 0.0;
+            double freeSpaceGB = 0.0;
+
+            devicesDataModel.appendNewDeviceEntry(uuid, fileName, fileExtension, totalSpaceGB, freeSpaceGB, ZonedDateTime.now(ZoneId.of("UTC")));
+            devicesDataModel.searchById(uuid).setBootImage(file.getCanonicalPath());
+            devicesDataModel.serializeToJsonFile();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package emulator;
+
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Filter, sort order and page requested from {@link DevicesDataModel#query(DeviceQuery)}.
+ *
+ * <p>Every criterion is optional; an empty query returns all devices in registration order.
+ * Setters return the query itself so criteria can be chained.</p>
+ */
+public class DeviceQuery {
+
+    /**
+     * Device attributes a query can sort on.
+     */
+    public enum Column {
+        FILE_NAME(Device::getFileName),
+        FILE_EXTENSION(Device::getFileExtension),
+        OPERATING_SYSTEM(Device::getOperatingSystem),
+        TOTAL_SPACE(Device::getTotalSpaceGB),
+        FREE_SPACE(Device::getFreeSpaceGB),
+        LAST_USED(device -> device.getLastUsed() == null ? null : device.getLastUsed().toInstant());
+
+        private final Comparator<Device> comparator;
+
+        <T extends Comparable<? super T>> Column(Function<Device, T> key) {
+            // Ties are broken on the identifier so every ordering is total and stable across queries
+            this.comparator = Comparator.comparing(key, Comparator.nullsFirst(Comparator.<T>naturalOrder()))
+                .thenComparing(Device::getId);
+        }
+
+        public Comparator<Device> comparator() {
+            return comparator;
+        }
+    }
+
+    // Member Variables
+    private String fileExtension;
+    private String operatingSystem;
+    private Double minFreeSpaceGB;
+    private Double maxFreeSpaceGB;
+    private ZonedDateTime usedAfter;
+    private ZonedDateTime usedBefore;
+    private Column sortColumn;
+    private boolean descending;
+    private int offset;
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Restricts results to devices whose boot image has the given extension, ignoring case.
+     *
+     * @param fileExtension Extension without the leading dot.
+     * @return This query.
+     */
+    public DeviceQuery withFileExtension(String fileExtension) {
+        this.fileExtension = fileExtension == null ? null : fileExtension.toLowerCase(Locale.ROOT);
+        return this;
+    }
+
+    /**
+     * Restricts results to devices running the given operating system.
+     *
+     * @param operatingSystem Operating system name as shown in the device settings.
+     * @return This query.
+     */
+    public DeviceQuery withOperatingSystem(String operatingSystem) {
+        this.operatingSystem = operatingSystem;
+        return this;
+    }
+
+    /**
+     * Restricts results to devices whose free space lies within the inclusive range. Either bound may be null.
+     *
+     * @param minFreeSpaceGB Lower bound in GB.
+     * @param maxFreeSpaceGB Upper bound in GB.
+     * @return This query.
+     */
+    public DeviceQuery withFreeSpaceBetween(Double minFreeSpaceGB, Double maxFreeSpaceGB) {
+        this.minFreeSpaceGB = minFreeSpaceGB;
+        this.maxFreeSpaceGB = maxFreeSpaceGB;
+        return this;
+    }
+
+    /**
+     * Restricts results to devices last used within the inclusive window. Either bound may be null.
+     *
+     * @param usedAfter  Earliest accepted last use.
+     * @param usedBefore Latest accepted last use.
+     * @return This query.
+     */
+    public DeviceQuery withLastUsedBetween(ZonedDateTime usedAfter, ZonedDateTime usedBefore) {
+        this.usedAfter = usedAfter;
+        this.usedBefore = usedBefore;
+        return this;
+    }
+
+    /**
+     * Orders results on a column.
+     *
+     * @param sortColumn Column to sort on.
+     * @param descending True to sort from the highest value down.
+     * @return This query.
+     */
+    public DeviceQuery sortedBy(Column sortColumn, boolean descending) {
+        this.sortColumn = sortColumn;
+        this.descending = descending;
+        return this;
+    }
+
+    /**
+     * Selects a page of the ordered results.
+     *
+     * @param offset Number of leading matches to skip.
+     * @param limit  Maximum number of matches returned.
+     * @return This query.
+     */
+    public DeviceQuery page(int offset, int limit) {
+        this.offset = Math.max(0, offset);
+        this.limit = Math.max(0, limit);
+        return this;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public String getOperatingSystem() {
+        return operatingSystem;
+    }
+
+    public Double getMinFreeSpaceGB() {
+        return minFreeSpaceGB;
+    }
+
+    public Double getMaxFreeSpaceGB() {
+        return maxFreeSpaceGB;
+    }
+
+    public ZonedDateTime getUsedAfter() {
+        return usedAfter;
+    }
+
+    public ZonedDateTime getUsedBefore() {
+        return usedBefore;
+    }
+
+    public Column getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    boolean hasFreeSpaceRange() {
+        return minFreeSpaceGB != null || maxFreeSpaceGB != null;
+    }
+
+    boolean hasLastUsedWindow() {
+        return usedAfter != null || usedBefore != null;
+    }
+
+    /**
+     * Evaluates every filter of the query against a device.
+     *
+     * @param device Candidate device.
+     * @return True if the device satisfies all criteria.
+     */
+    boolean matches(Device device) {
+        if (fileExtension != null && (device.getFileExtension() == null || !fileExtension.equals(device.getFileExtension().toLowerCase(Locale.ROOT)))) {
+            return false;
+        }
+
+        if (operatingSystem != null && !operatingSystem.equals(device.getOperatingSystem())) {
+            return false;
+        }
+
+        if (hasFreeSpaceRange()) {
+            Double freeSpaceGB = device.getFreeSpaceGB();
+
+            if (freeSpaceGB == null
+                || (minFreeSpaceGB != null && freeSpaceGB < minFreeSpaceGB)
+                || (maxFreeSpaceGB != null && freeSpaceGB > maxFreeSpaceGB)) {
+                return false;
+            }
+        }
+
+        if (hasLastUsedWindow()) {
+            ZonedDateTime lastUsed = device.getLastUsed();
+
+            return lastUsed != null
+                && (usedAfter == null || !lastUsed.isBefore(usedAfter))
+                && (usedBefore == null || !lastUsed.isAfter(usedBefore));
+        }
+
+        return true;
+    }
+
+    /**
+     * One page of query results together with the total number of matches.
+     */
+    public static final class Result {
+
+        private final List<Device> devices;
+        private final int totalMatches;
+
+        Result(List<Device> devices, int totalMatches) {
+            this.devices = devices;
+            this.totalMatches = totalMatches;
+        }
+
+        public List<Device> getDevices() {
+            return devices;
+        }
+
+        public int getTotalMatches() {
+            return totalMatches;
+        }
+    }
+}
@@ -0,0 +1,533 @@
+package emulator;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Background sampler tracking live disk usage, I/O and frame throughput of the registered devices.
+ *
+ * <p>Disk reads are accounted by the images handed out by {@link #openDisk}, and display frames by a
+ * {@link DirectFrameExtractor} constructed with this sampler; pipe traffic is kept apart from disk I/O.</p>
+ *
+ * <p>Samples are taken on a dedicated daemon thread. I/O and frame counters only exist for devices that
+ * report activity, and each such device gets a fixed-size ring on its first non-empty sample; the ring is
+ * dropped again after a full ring of idle samples. Disk images are inspected round-robin, a bounded batch
+ * per tick, plus the images of active devices on every tick, so a large fleet costs neither a stat call per
+ * device per tick nor a ring per device. Devices without a resolvable image are not tracked at all.</p>
+ *
+ * <p>Raw images have no allocation map, so their allocated bytes come from a zero-block scan that is spread
+ * over several ticks under a shared byte budget and cached until the image's modification time or size
+ * changes. Images that are not disks, such as archives and optical media, are published with unknown figures.</p>
+ *
+ * <p>The latest disk figures are pushed into the {@link DevicesDataModel} on the EDT at a lower, throttled
+ * rate; nothing is written back to {@code device_config.json}, which keeps being saved only on explicit edits.</p>
+ */
+public class DeviceResourceSampler implements AutoCloseable {
+
+    // Constants
+    static final int RING_CAPACITY = 120;
+    private static final long DEFAULT_SAMPLE_INTERVAL_MILLIS = 1_000;
+    private static final long DEFAULT_PUBLISH_INTERVAL_MILLIS = 5_000;
+    static final int DISK_CHECKS_PER_TICK = 256;
+    static final long SCAN_BYTES_PER_TICK = 64L * 1024 * 1024;
+    private static final long[] UNKNOWN_USAGE = {-1, -1};
+    private static final double BYTES_PER_GB = 1024.0 * 1024.0 * 1024.0;
+
+    /**
+     * Receives notice of devices whose disk figures changed since the previous publish. Always invoked on the EDT.
+     */
+    public interface DeviceStatsListener {
+        void deviceStatsUpdated(Set<UUID> deviceIds);
+    }
+
+    // Member Variables
+    private final DevicesDataModel devicesDataModel;
+    private final Function<Device, Path> imagePathResolver;
+    private final long sampleIntervalMillis;
+    private final long publishIntervalMillis;
+    private final Map<UUID, DeviceCounters> counters = new ConcurrentHashMap<>();
+    private final Map<UUID, DeviceStatsRing> rings = new ConcurrentHashMap<>();
+    private final Map<Path, ImageUsage> imageUsage = new ConcurrentHashMap<>();
+    private final Map<Device, long[]> pendingFigures = new IdentityHashMap<>();
+    private final Map<UUID, long[]> lastPublished = new HashMap<>();
+    private final CopyOnWriteArrayList<DeviceStatsListener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private long lastPublishMillis;
+    private int diskCursor;
+    private long scanBudget;
+
+    /**
+     * Constructs a sampler using the default one second sample and five second publish intervals.
+     *
+     * @param devicesDataModel  Model whose devices are sampled and updated.
+     * @param imagePathResolver Maps a device onto the location of its disk image.
+     */
+    public DeviceResourceSampler(DevicesDataModel devicesDataModel, Function<Device, Path> imagePathResolver) {
+        this(devicesDataModel, imagePathResolver, DEFAULT_SAMPLE_INTERVAL_MILLIS, DEFAULT_PUBLISH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Constructs a sampler with explicit sample and publish intervals.
+     *
+     * @param devicesDataModel      Model whose devices are sampled and updated.
+     * @param imagePathResolver     Maps a device onto the location of its disk image.
+     * @param sampleIntervalMillis  Period between two samples.
+     * @param publishIntervalMillis Minimum period between two pushes into the model.
+     */
+    public DeviceResourceSampler(DevicesDataModel devicesDataModel, Function<Device, Path> imagePathResolver,
+                                 long sampleIntervalMillis, long publishIntervalMillis) {
+        this.devicesDataModel = devicesDataModel;
+        this.imagePathResolver = imagePathResolver;
+        this.sampleIntervalMillis = sampleIntervalMillis;
+        this.publishIntervalMillis = publishIntervalMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "device-resource-sampler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts periodic sampling. The first pass runs one sample interval later, so it does not compete with
+     * whatever the caller is still doing, such as bringing up the window.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::sampleAll, sampleIntervalMillis, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    public void addDeviceStatsListener(DeviceStatsListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeDeviceStatsListener(DeviceStatsListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Opens the disk image of a device so that every read served from it is accounted to the device.
+     *
+     * @param device Device whose disk is opened.
+     * @return Opened image.
+     * @throws IOException Thrown when the device has no image or the image cannot be opened.
+     */
+    public DiskImage openDisk(Device device) throws IOException {
+        Path imagePath = imagePathResolver.apply(device);
+
+        if (imagePath == null) {
+            throw new IOException("Device " + device.getId() + " has no disk image.");
+        }
+
+        return new MeteredDiskImage(DiskImage.open(imagePath), device.getId(), this);
+    }
+
+    /**
+     * Accounts a completed disk read. Safe to call from any I/O thread.
+     *
+     * @param deviceId     Device the read was served for.
+     * @param bytes        Number of bytes read.
+     * @param latencyNanos Time the read took.
+     */
+    void recordRead(UUID deviceId, long bytes, long latencyNanos) {
+        DeviceCounters deviceCounters = countersFor(deviceId);
+        deviceCounters.readBytes.add(bytes);
+        deviceCounters.readOps.increment();
+        deviceCounters.readLatencyNanos.add(latencyNanos);
+    }
+
+    /**
+     * Accounts one frame delivered to the display. Safe to call from any thread.
+     *
+     * @param deviceId   Device the frame belongs to.
+     * @param frameBytes Number of bytes the frame took on the display pipe.
+     */
+    public void recordFrame(UUID deviceId, long frameBytes) {
+        DeviceCounters deviceCounters = countersFor(deviceId);
+        deviceCounters.frames.increment();
+        deviceCounters.displayBytes.add(frameBytes);
+    }
+
+    /**
+     * Returns the sample history of a device.
+     *
+     * @param deviceId Device of interest.
+     * @return Ring of recent samples. Null if the device has not reported any activity recently.
+     */
+    public DeviceStatsRing statsFor(UUID deviceId) {
+        return rings.get(deviceId);
+    }
+
+    private DeviceCounters countersFor(UUID deviceId) {
+        return counters.computeIfAbsent(deviceId, id -> new DeviceCounters());
+    }
+
+    private void sampleAll() {
+        try {
+            long now = System.currentTimeMillis();
+            scanBudget = SCAN_BYTES_PER_TICK;
+
+            sampleActiveDevices(now);
+            inspectNextDisks();
+
+            if (now - lastPublishMillis >= publishIntervalMillis) {
+                lastPublishMillis = now;
+                publish();
+            }
+        } catch (RuntimeException ignore) {
+            // A failed tick must not cancel the schedule
+        }
+    }
+
+    /**
+     * Drains the counters of every device that reported activity into its ring, and inspects its disk.
+     */
+    private void sampleActiveDevices(long now) {
+        for (Map.Entry<UUID, DeviceCounters> entry : counters.entrySet()) {
+            UUID deviceId = entry.getKey();
+            DeviceCounters deviceCounters = entry.getValue();
+            long[] sample = deviceCounters.drain();
+            DeviceStatsRing ring = rings.get(deviceId);
+
+            if (Arrays.stream(sample).allMatch(value -> value == 0)) {
+                // Forget devices that stayed idle for a whole ring; they come back on their next activity
+                if (++deviceCounters.idleSamples >= RING_CAPACITY) {
+                    counters.remove(deviceId, deviceCounters);
+                    rings.remove(deviceId);
+                    continue;
+                }
+
+                if (ring == null) {
+                    continue;
+                }
+            } else {
+                deviceCounters.idleSamples = 0;
+
+                if (ring == null) {
+                    ring = new DeviceStatsRing(RING_CAPACITY);
+                    rings.put(deviceId, ring);
+                }
+            }
+
+            ring.append(now, sample);
+
+            Device device = devicesDataModel.searchById(deviceId);
+            if (device != null) {
+                inspectDisk(device);
+            }
+        }
+    }
+
+    /**
+     * Inspects the disks of the next batch of devices, continuing where the previous tick stopped.
+     */
+    private void inspectNextDisks() {
+        Device[] batch;
+
+        // Copy the references under the model's lock and inspect outside it
+        synchronized (devicesDataModel) {
+            int count = devicesDataModel.count();
+            batch = new Device[Math.min(DISK_CHECKS_PER_TICK, count)];
+
+            for (int i = 0; i < batch.length; ++i) {
+                diskCursor = diskCursor < count ? diskCursor : 0;
+                batch[i] = devicesDataModel.itemAtIndex(diskCursor++);
+            }
+        }
+
+        for (Device device : batch) {
+            inspectDisk(device);
+        }
+    }
+
+    private void inspectDisk(Device device) {
+        Path imagePath = imagePathResolver.apply(device);
+
+        if (imagePath == null) {
+            return;
+        }
+
+        try {
+            long[] figures = diskUsage(imagePath);
+
+            if (figures != null) {
+                pendingFigures.put(device, figures);
+            }
+        } catch (IOException ignore) {
+            // Image missing or unreadable; keep the previous figures
+        }
+    }
+
+    private void publish() {
+        Map<Device, Double[]> spaceUpdates = new HashMap<>();
+
+        for (Map.Entry<Device, long[]> entry : pendingFigures.entrySet()) {
+            Device device = entry.getKey();
+            long[] figures = entry.getValue();
+
+            // Re-filing a device in the sorted indexes costs two tree operations, so only changed figures are pushed
+            if (Arrays.equals(figures, lastPublished.put(device.getId(), figures))) {
+                continue;
+            }
+
+            if (figures == UNKNOWN_USAGE) {
+                spaceUpdates.put(device, new Double[]{null, null});
+            } else {
+                double totalSpaceGB = figures[0] / BYTES_PER_GB;
+                double freeSpaceGB = (figures[0] - figures[1]) / BYTES_PER_GB;
+                spaceUpdates.put(device, new Double[]{totalSpaceGB, freeSpaceGB});
+            }
+        }
+
+        pendingFigures.clear();
+
+        if (spaceUpdates.isEmpty()) {
+            return;
+        }
+
+        SwingUtilities.invokeLater(() -> {
+            Set<UUID> updatedIds = new HashSet<>();
+
+            spaceUpdates.forEach((device, space) -> {
+                devicesDataModel.updateDeviceSpace(device, space[0], space[1]);
+                updatedIds.add(device.getId());
+            });
+
+            Set<UUID> unmodifiable = Collections.unmodifiableSet(updatedIds);
+            listeners.forEach(listener -> listener.deviceStatsUpdated(unmodifiable));
+        });
+    }
+
+    /**
+     * Determines the capacity of a disk image and how many of its bytes are actually backed by data. A raw
+     * image is scanned a slice at a time within the current tick's budget; until its first scan completes
+     * there are no figures, and while a rescan is under way the previous figures are returned.
+     *
+     * @param imagePath Location of the disk image.
+     * @return Capacity and allocated bytes, in that order. {@link #UNKNOWN_USAGE} if the file is not a disk
+     *         image, null if no figures are available yet.
+     * @throws IOException Thrown when the image cannot be inspected.
+     */
+    long[] diskUsage(Path imagePath) throws IOException {
+        if (!DiskImage.isDiskImage(imagePath)) {
+            return UNKNOWN_USAGE;
+        }
+
+        // Re-inspect an image only when the file itself changes; opening a compressed image reads its whole chunk index
+        BasicFileAttributes attributes = Files.readAttributes(imagePath, BasicFileAttributes.class);
+        long stamp = attributes.lastModifiedTime().toMillis() ^ attributes.size();
+        ImageUsage usage = imageUsage.computeIfAbsent(imagePath, path -> new ImageUsage());
+
+        if (usage.figures != null && usage.figuresStamp == stamp) {
+            return usage.figures;
+        }
+
+        try (DiskImage image = DiskImage.open(imagePath)) {
+            if (!(image instanceof RawDiskImage)) {
+                usage.figures = new long[]{image.size(), image.allocatedBytes()};
+                usage.figuresStamp = stamp;
+                return usage.figures;
+            }
+
+            // A scan runs to completion even if the image changes meanwhile; the next call then starts a fresh one
+            if (!usage.scanning) {
+                usage.scanning = true;
+                usage.scanStamp = stamp;
+                usage.scanPosition = 0;
+                usage.scanAllocated = 0;
+            }
+
+            long size = image.size();
+            long slice = Math.min(size - usage.scanPosition, scanBudget - scanBudget % RawDiskImage.ALLOCATION_BLOCK_SIZE);
+
+            if (slice > 0) {
+                usage.scanAllocated += ((RawDiskImage) image).allocatedBytes(usage.scanPosition, slice);
+                usage.scanPosition += slice;
+                scanBudget -= slice;
+            }
+
+            if (usage.scanPosition >= size) {
+                usage.scanning = false;
+                usage.figures = new long[]{size, usage.scanAllocated};
+                usage.figuresStamp = usage.scanStamp;
+            }
+
+            return usage.figures;
+        }
+    }
+
+    /**
+     * Cached figures of one disk image, with the progress of the scan refreshing them. Only touched by the sampler thread.
+     */
+    private static class ImageUsage {
+        long[] figures;
+        long figuresStamp;
+        boolean scanning;
+        long scanStamp;
+        long scanPosition;
+        long scanAllocated;
+    }
+
+    /**
+     * Hot-path counters accumulated between two samples.
+     */
+    private static class DeviceCounters {
+        final LongAdder readBytes = new LongAdder();
+        final LongAdder readOps = new LongAdder();
+        final LongAdder readLatencyNanos = new LongAdder();
+        final LongAdder frames = new LongAdder();
+        final LongAdder displayBytes = new LongAdder();
+
+        // Only touched by the sampler thread
+        int idleSamples;
+
+        /**
+         * Resets the counters and returns their totals, in {@link DeviceStatsRing#append} order.
+         */
+        long[] drain() {
+            return new long[]{
+                readBytes.sumThenReset(),
+                readOps.sumThenReset(),
+                readLatencyNanos.sumThenReset(),
+                frames.sumThenReset(),
+                displayBytes.sumThenReset()
+            };
+        }
+    }
+}
+
+/**
+ * Fixed-size ring of I/O and frame samples for a single device. The oldest sample is overwritten once the ring is full.
+ */
+class DeviceStatsRing {
+
+    private final int capacity;
+    private final long[] timestampMillis;
+    private final long[] readBytes;
+    private final long[] readOps;
+    private final long[] readLatencyNanos;
+    private final long[] frames;
+    private final long[] displayBytes;
+    private int head;
+    private int size;
+
+    DeviceStatsRing(int capacity) {
+        this.capacity = capacity;
+        this.timestampMillis = new long[capacity];
+        this.readBytes = new long[capacity];
+        this.readOps = new long[capacity];
+        this.readLatencyNanos = new long[capacity];
+        this.frames = new long[capacity];
+        this.displayBytes = new long[capacity];
+    }
+
+    /**
+     * Appends one sample.
+     *
+     * @param timestamp Moment the sample was taken.
+     * @param sample    Disk bytes read, disk reads, read latency, frames and display pipe bytes, in that order.
+     */
+    synchronized void append(long timestamp, long[] sample) {
+        timestampMillis[head] = timestamp;
+        readBytes[head] = sample[0];
+        readOps[head] = sample[1];
+        readLatencyNanos[head] = sample[2];
+        frames[head] = sample[3];
+        displayBytes[head] = sample[4];
+
+        head = (head + 1) % this.capacity;
+        size = Math.min(size + 1, this.capacity);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Computes the disk read throughput over the retained window.
+     *
+     * @return Bytes read per second.
+     */
+    public synchronized double readBytesPerSecond() {
+        return perSecond(readBytes);
+    }
+
+    /**
+     * Computes the display pipe throughput over the retained window.
+     *
+     * @return Frame bytes received per second.
+     */
+    public synchronized double displayBytesPerSecond() {
+        return perSecond(displayBytes);
+    }
+
+    /**
+     * Computes the frame rate over the retained window.
+     *
+     * @return Frames delivered per second.
+     */
+    public synchronized double framesPerSecond() {
+        return perSecond(frames);
+    }
+
+    /**
+     * Computes the mean read latency over the retained window.
+     *
+     * @return Average nanoseconds per read. Zero if no reads were recorded.
+     */
+    public synchronized double averageReadLatencyNanos() {
+        long operations = sum(readOps);
+        return operations == 0 ? 0 : (double) sum(readLatencyNanos) / operations;
+    }
+
+    private int latestSlot() {
+        return (head - 1 + capacity) % capacity;
+    }
+
+    private int oldestSlot() {
+        return (head - size + capacity) % capacity;
+    }
+
+    private long sum(long[] series) {
+        long total = 0;
+
+        for (int i = 0, slot = oldestSlot(); i < size; ++i, slot = (slot + 1) % capacity) {
+            total += series[slot];
+        }
+
+        return total;
+    }
+
+    private double perSecond(long[] series) {
+        if (size < 2) {
+            return 0;
+        }
+
+        // The oldest sample only marks the start of the window; its counts belong to the interval before it
+        long elapsedMillis = timestampMillis[latestSlot()] - timestampMillis[oldestSlot()];
+        long total = sum(series) - series[oldestSlot()];
+        return elapsedMillis <= 0 ? 0 : total * 1000.0 / elapsedMillis;
+    }
+}
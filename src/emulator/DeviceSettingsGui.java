@@ -1,13 +1,15 @@
-import javax.imageio.ImageIO;
+package emulator;
+
 import javax.swing.*;
+import javax.swing.filechooser.FileFilter;
 import java.awt.*;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.List;
 import java.util.Objects;
 
 public class DeviceSettingsGui extends JDialog {
@@ -19,7 +21,7 @@ public class DeviceSettingsGui extends JDialog {
     // Member Variables
     private final JFrame ownerFrame;
     private final DevicesDataModel devicesDataModel;
-    private final Device currentDevice;
+    private Device currentDevice;
     private JTextField deviceNameField;
     private JComboBox<String> osSelectionBox;
     private JButton chooseBootImageButton;
@@ -29,36 +31,44 @@ public class DeviceSettingsGui extends JDialog {
     private JTextField screenWidthTextField;
     private JTextField screenHeightTextField;
     private JButton applyChangesButton;
+    private JFileChooser bootImageChooser;
 
     /**
-     * Class constructor taking the required arguments.
+     * Class constructor taking the required arguments. Builds the form without showing it; see {@link #showFor(Device)}.
      *
      * @param ownerFrame Reference to the owner frame.
      * @param devicesDataModel Instance of the devices data model.
-     * @param currentDevice Current device to be edited.
      */
-    public DeviceSettingsGui(JFrame ownerFrame, DevicesDataModel devicesDataModel, Device currentDevice) {
+    public DeviceSettingsGui(JFrame ownerFrame, DevicesDataModel devicesDataModel) {
         super(ownerFrame, "Edit Device Settings", Dialog.ModalityType.DOCUMENT_MODAL);
         this.ownerFrame = ownerFrame;
         this.devicesDataModel = devicesDataModel;
-        this.currentDevice = currentDevice;
 
         // Build the UI components
         createFormFields();
-        createButtons();
         arrangeFormElements();
 
         // Wire listener hooks
         wireListeners();
 
+        // Pack the dialog; it is hidden rather than disposed on close so the form can be reused
+        pack();
+        setDefaultCloseOperation(WindowConstants.HIDE_ON_CLOSE);
+        setResizable(false);
+    }
+
+    /**
+     * Loads the given device into the form and shows the dialog.
+     *
+     * @param device Device to be edited.
+     */
+    public void showFor(Device device) {
+        this.currentDevice = device;
+
         // Establish initial field states
         updateFormFields();
 
-        // Pack the dialog and centre it
-        pack();
         setLocationRelativeTo(ownerFrame);
-        setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
-        setResizable(false);
         setVisible(true);
     }
 
@@ -108,12 +118,13 @@ public class DeviceSettingsGui extends JDialog {
                     .addGroup(groupLayout.createParallelGroup(GroupLayout.Alignment.TRAILING)
                         .addComponent(screenWidthTextField, GroupLayout.PREFERRED_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFERRED_SIZE)
                         .addComponent(screenHeightTextField, GroupLayout.PREFERRED_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFERRED_SIZE)
-                        .addComponent(vrAmTextField, GroupLayout.PREFERRED_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFFERED_SIZE)
+                        .addComponent(vrAmTextField, GroupLayout.PREFERRED_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFERRED_SIZE)
                         .addComponent(enableVgpuAccelerationCheckBox, GroupLayout.PREFERRED_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFERRED_SIZE)
                         .addComponent(currentBootImageLabel, GroupLayout.PREFERRED_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFERRED_SIZE)
                         .addComponent(chooseBootImageButton, GroupLayout.PREFERRED_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFERRED_SIZE)
                         .addComponent(osSelectionBox, GroupLayout.PREFERRED_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFERRED_SIZE)
-                        .addComponent(deviceNameField, GroupLayout.PREFERRED_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFERRED_SIZE))
+                        .addComponent(deviceNameField, GroupLayout.PREFERRED_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFERRED_SIZE)
+                        .addComponent(applyChangesButton, GroupLayout.PREFERRED_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFERRED_SIZE)))
         );
 
         groupLayout.linkSize(SwingConstants.HORIZONTAL, new Component[]{deviceNameField, osSelectionBox, screenWidthTextField, screenHeightTextField, vrAmTextField, currentBootImageLabel, chooseBootImageButton});
@@ -191,14 +202,17 @@ public class DeviceSettingsGui extends JDialog {
      * Opens a file picker for choosing a new boot image.
      */
     private void chooseBootImage() {
-        JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setFileFilter(new BootImageFileFilter());
-        fileChooser.setMultiSelectionEnabled(false);
+        // Building a file chooser scans the file system, so it is created on first use and kept
+        if (bootImageChooser == null) {
+            bootImageChooser = new JFileChooser();
+            bootImageChooser.setFileFilter(new BootImageFileFilter());
+            bootImageChooser.setMultiSelectionEnabled(false);
+        }
 
+        JFileChooser fileChooser = bootImageChooser;
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             try {
-                InputStream stream = ImageIO.createImageInputStream(fileChooser.getSelectedFile());
                 currentDevice.setBootImage(fileChooser.getSelectedFile().getCanonicalPath());
                 currentBootImageLabel.setText("<html><body style='width: 200px; margin: auto'>" + fileChooser.getSelectedFile().getCanonicalPath() + "</body></html>");
             } catch (IOException e) {
@@ -300,7 +314,7 @@ public class DeviceSettingsGui extends JDialog {
          */
         private String getFileExtension(File file) {
             String fileName = file.getName().toLowerCase();
-            return fileName.substring(fileName.lastIndexOf('.'));
+            return fileName.substring(fileName.lastIndexOf('.') + 1);
         }
     }
 }
@@ -0,0 +1,404 @@
+package emulator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Saved state of a running device, used to warm boot it without going through a cold start.
+ *
+ * <p>A snapshot file holds one section per {@link Section} kind. Every section is split into
+ * fixed-size chunks that are compressed independently, so a restore only inflates the chunks
+ * the guest actually touches. The file layout is:</p>
+ *
+ * <pre>
+ *   header   magic, version, chunk size, index offset
+ *   chunks   deflated chunk payloads, back to back
+ *   index    per section: kind, uncompressed length, chunk count, (offset, length) per chunk
+ * </pre>
+ */
+public class DeviceSnapshot implements Closeable {
+
+    // Constants
+    static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    private static final long MAGIC = 0x414F5345534E4150L; // "AOSESNAP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int CACHED_CHUNKS_PER_SECTION = 16;
+    private static final String SNAPSHOT_DIRECTORY = "snapshots";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    /**
+     * Kinds of device state a snapshot captures.
+     */
+    enum Section {
+        RAM,
+        DISK_OVERLAY,
+        DISPLAY
+    }
+
+    // Member Variables
+    private final FileChannel channel;
+    private final int chunkSize;
+    private final Map<Section, SnapshotSection> sections = new EnumMap<>(Section.class);
+
+    private DeviceSnapshot(FileChannel channel) throws IOException {
+        this.channel = channel;
+
+        ByteBuffer header = readFully(0, HEADER_SIZE);
+        if (header.getLong() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a device snapshot file.");
+        }
+
+        chunkSize = header.getInt();
+        long indexOffset = header.getLong();
+        long fileSize = channel.size();
+
+        if (chunkSize <= 0 || indexOffset < HEADER_SIZE || indexOffset > fileSize - Integer.BYTES
+            || fileSize - indexOffset > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt device snapshot header.");
+        }
+
+        ByteBuffer index = readFully(indexOffset, (int) (fileSize - indexOffset));
+        int sectionCount = index.getInt();
+
+        if (sectionCount < 0 || sectionCount > Section.values().length) {
+            throw new IOException("Corrupt device snapshot index: " + sectionCount + " sections.");
+        }
+
+        for (int s = 0; s < sectionCount; ++s) {
+            requireIndexBytes(index, Integer.BYTES + Long.BYTES + Integer.BYTES);
+
+            int ordinal = index.getInt();
+            long length = index.getLong();
+            int chunkCount = index.getInt();
+
+            if (ordinal < 0 || ordinal >= Section.values().length || sections.containsKey(Section.values()[ordinal])) {
+                throw new IOException("Corrupt device snapshot index: bad section kind " + ordinal + ".");
+            }
+
+            // Every chunk but the last is full, so the chunk count follows from the section length
+            if (length < 0 || chunkCount < 0 || chunkCount != (length + chunkSize - 1) / chunkSize) {
+                throw new IOException("Corrupt device snapshot index: " + chunkCount + " chunks for " + length + " bytes.");
+            }
+
+            requireIndexBytes(index, (long) chunkCount * (Long.BYTES + Integer.BYTES));
+
+            long[] chunkOffsets = new long[chunkCount];
+            int[] chunkLengths = new int[chunkCount];
+
+            for (int c = 0; c < chunkCount; ++c) {
+                chunkOffsets[c] = index.getLong();
+                chunkLengths[c] = index.getInt();
+
+                if (chunkOffsets[c] < HEADER_SIZE || chunkLengths[c] < 0 || chunkOffsets[c] + chunkLengths[c] > indexOffset) {
+                    throw new IOException("Corrupt device snapshot index: chunk " + c + " lies outside the chunk area.");
+                }
+            }
+
+            sections.put(Section.values()[ordinal], new SnapshotSection(length, chunkOffsets, chunkLengths));
+        }
+    }
+
+    private static void requireIndexBytes(ByteBuffer index, long count) throws IOException {
+        if (index.remaining() < count) {
+            throw new IOException("Truncated device snapshot index.");
+        }
+    }
+
+    /**
+     * Resolves the snapshot file belonging to the given device.
+     *
+     * @param deviceId Identifier of the device.
+     * @return Location of the device's snapshot file.
+     */
+    public static Path snapshotPathFor(UUID deviceId) {
+        return Paths.get(SNAPSHOT_DIRECTORY, deviceId + SNAPSHOT_SUFFIX).toAbsolutePath();
+    }
+
+    /**
+     * Captures the state of a device into its snapshot file, then records the snapshot through the model,
+     * which persists it. The file is written outside the model's lock.
+     *
+     * @param devicesDataModel Model the device is registered with.
+     * @param device           Device whose state is captured.
+     * @param sections         Channels providing the contents of each captured section.
+     * @throws IOException Propagated from lower level IO layer.
+     */
+    public static void capture(DevicesDataModel devicesDataModel, Device device, Map<Section, ReadableByteChannel> sections) throws IOException {
+        Path filePath = snapshotPathFor(device.getId());
+        Files.createDirectories(filePath.getParent());
+
+        // Write beside the live snapshot so a failed capture never leaves a torn file behind
+        Path tempPath = Files.createTempFile(filePath.getParent(), device.getId().toString(), ".tmp");
+
+        try {
+            try (FileChannel out = FileChannel.open(tempPath, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeSnapshot(out, sections, DEFAULT_CHUNK_SIZE);
+            }
+
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+
+        devicesDataModel.recordSnapshot(device, Files.size(filePath));
+    }
+
+    /**
+     * Opens the snapshot of the given device for a lazy restore.
+     *
+     * @param device Device whose snapshot is restored.
+     * @return Opened snapshot. Null if the device has none.
+     * @throws IOException Thrown when the snapshot file is unreadable or corrupt.
+     */
+    public static DeviceSnapshot open(Device device) throws IOException {
+        Path filePath = snapshotPathFor(device.getId());
+
+        if (!device.hasSnapshot() || !Files.exists(filePath)) {
+            return null;
+        }
+
+        FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ);
+
+        try {
+            return new DeviceSnapshot(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes the snapshot file of the given device and clears its snapshot metadata in memory. Callers
+     * outside the model go through {@link DevicesDataModel#discardSnapshot}, which also persists the change.
+     *
+     * @param device Device whose snapshot is discarded.
+     * @throws IOException Propagated from lower level IO layer.
+     */
+    static void delete(Device device) throws IOException {
+        Files.deleteIfExists(snapshotPathFor(device.getId()));
+        device.clearSnapshot();
+    }
+
+    /**
+     * Returns the uncompressed length of a section.
+     *
+     * @param kind Section of interest.
+     * @return Length in bytes. Zero if the section was not captured.
+     */
+    public long sectionLength(Section kind) {
+        SnapshotSection section = sections.get(kind);
+        return section == null ? 0 : section.length;
+    }
+
+    /**
+     * Copies restored section bytes into the destination buffer, paging in only the chunks that overlap the request.
+     *
+     * @param kind     Section to read from.
+     * @param position Offset within the uncompressed section.
+     * @param dst      Destination buffer, filled up to its limit or the end of the section.
+     * @return Number of bytes copied, or -1 if the position lies past the end of the section.
+     * @throws IOException Thrown when a chunk cannot be read or inflated.
+     */
+    public int read(Section kind, long position, ByteBuffer dst) throws IOException {
+        SnapshotSection section = sections.get(kind);
+
+        if (section == null || position >= section.length) {
+            return -1;
+        }
+
+        int copied = 0;
+
+        while (dst.hasRemaining() && position < section.length) {
+            int chunkIndex = (int) (position / chunkSize);
+            int chunkOffset = (int) (position % chunkSize);
+
+            ByteBuffer chunk = section.chunk(chunkIndex).duplicate();
+            chunk.position(chunkOffset);
+
+            int count = Math.min(chunk.remaining(), dst.remaining());
+            chunk.limit(chunkOffset + count);
+            dst.put(chunk);
+
+            position += count;
+            copied += count;
+        }
+
+        return copied;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void writeSnapshot(FileChannel out, Map<Section, ReadableByteChannel> sections, int chunkSize) throws IOException {
+        // Reserve the header; it is filled in once the index offset is known
+        out.position(HEADER_SIZE);
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        ByteBuffer raw = ByteBuffer.allocate(chunkSize);
+        byte[] compressed = new byte[chunkSize + chunkSize / 1000 + 64];
+        List<ByteBuffer> sectionIndexes = new ArrayList<>();
+
+        try {
+            for (Map.Entry<Section, ReadableByteChannel> entry : sections.entrySet()) {
+                long length = 0;
+                int chunkCount = 0;
+                ByteBuffer chunkIndex = ByteBuffer.allocate(1024);
+
+                while (fillChunk(entry.getValue(), raw) > 0) {
+                    raw.flip();
+                    length += raw.remaining();
+
+                    deflater.reset();
+                    deflater.setInput(raw.array(), 0, raw.remaining());
+                    deflater.finish();
+                    int compressedLength = deflater.deflate(compressed);
+
+                    if (!deflater.finished()) {
+                        throw new IOException("Snapshot chunk did not fit its compression buffer.");
+                    }
+
+                    if (chunkIndex.remaining() < Long.BYTES + Integer.BYTES) {
+                        chunkIndex = grow(chunkIndex);
+                    }
+                    chunkIndex.putLong(out.position()).putInt(compressedLength);
+                    writeFully(out, ByteBuffer.wrap(compressed, 0, compressedLength));
+
+                    ++chunkCount;
+                    raw.clear();
+                }
+
+                chunkIndex.flip();
+                ByteBuffer sectionIndex = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + Integer.BYTES + chunkIndex.remaining());
+                sectionIndex.putInt(entry.getKey().ordinal()).putLong(length).putInt(chunkCount).put(chunkIndex);
+                sectionIndexes.add(sectionIndex.flip());
+            }
+        } finally {
+            deflater.end();
+        }
+
+        long indexOffset = out.position();
+        writeFully(out, ByteBuffer.allocate(Integer.BYTES).putInt(sectionIndexes.size()).flip());
+        for (ByteBuffer sectionIndex : sectionIndexes) {
+            writeFully(out, sectionIndex);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putLong(MAGIC).putInt(VERSION).putInt(chunkSize).putLong(indexOffset);
+        out.write(header.flip(), 0);
+        out.force(true);
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static int fillChunk(ReadableByteChannel source, ByteBuffer raw) throws IOException {
+        while (raw.hasRemaining()) {
+            if (source.read(raw) < 0) {
+                break;
+            }
+        }
+
+        return raw.position();
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        return grown.put(buffer);
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated device snapshot file.");
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * One captured section, paging its chunks in from the snapshot file as they are first read.
+     */
+    private class SnapshotSection {
+
+        private final long length;
+        private final long[] chunkOffsets;
+        private final int[] chunkLengths;
+        private final Map<Integer, ByteBuffer> inflatedChunks = new LinkedHashMap<>(CACHED_CHUNKS_PER_SECTION, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ByteBuffer> eldest) {
+                return size() > CACHED_CHUNKS_PER_SECTION;
+            }
+        };
+
+        SnapshotSection(long length, long[] chunkOffsets, int[] chunkLengths) {
+            this.length = length;
+            this.chunkOffsets = chunkOffsets;
+            this.chunkLengths = chunkLengths;
+        }
+
+        synchronized ByteBuffer chunk(int chunkIndex) throws IOException {
+            ByteBuffer cached = inflatedChunks.get(chunkIndex);
+            if (cached != null) {
+                return cached;
+            }
+
+            // Map just this chunk so untouched regions of the file are never faulted in
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, chunkOffsets[chunkIndex], chunkLengths[chunkIndex]);
+            int inflatedLength = (int) Math.min(chunkSize, length - (long) chunkIndex * chunkSize);
+            ByteBuffer inflated = ByteBuffer.allocate(inflatedLength);
+
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(mapped);
+
+                while (inflated.hasRemaining() && !inflater.finished()) {
+                    if (inflater.inflate(inflated) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                }
+
+                // A short or overlong stream means the chunk does not match the index
+                if (inflated.hasRemaining() || !inflater.finished()) {
+                    throw new IOException("Corrupt chunk " + chunkIndex + " in device snapshot.");
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt chunk " + chunkIndex + " in device snapshot.", e);
+            } finally {
+                inflater.end();
+            }
+
+            inflated.flip();
+            ByteBuffer readOnly = inflated.asReadOnlyBuffer();
+            inflatedChunks.put(chunkIndex, readOnly);
+            return readOnly;
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package emulator;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.apache.commons.lang3.RandomStringUtils;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Data model pertinent to virtual devices managed by the application.
+ */
+public class DevicesDataModel {
+
+    private static final Logger LOGGER = Logger.getLogger(DevicesDataModel.class.getName());
+
+    private List<Device> devices;
+
+    // Results at least this large are filtered and sorted on a parallel stream
+    private static final int PARALLEL_QUERY_THRESHOLD = 50_000;
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final UUID HIGHEST_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    // Lookup indexes over devices; transient so they are rebuilt rather than persisted. Devices route every
+    // change to an indexed field through rekey, so once built the indexes are kept in step instead of rebuilt
+    private transient Map<UUID, Device> devicesById;
+    private transient Map<String, List<Device>> devicesByExtension;
+    private transient NavigableSet<Device> devicesByFreeSpace;
+    private transient NavigableSet<Device> devicesByLastUsed;
+
+    /**
+     * Default constructor. Initializes an empty array of devices.
+     */
+    public DevicesDataModel() {
+        devices = new ArrayList<>();
+    }
+
+    /**
+     * Constructs a deep clone of the recipient devices collection.
+     *
+     * @param devices Collection of devices to be duplicated.
+     */
+    public DevicesDataModel(List<Device> devices) {
+        this.devices = new ArrayList<>(devices.size());
+
+        // A device reports its key changes to a single model, so the copies must not share device records
+        devices.forEach(device -> this.devices.add(new Device(device)));
+    }
+
+    /**
+     * Retrieves the number of currently registered devices.
+     *
+     * @return Count of extant devices.
+     */
+    public synchronized int count() {
+        return devices.size();
+    }
+
+    /**
+     * Returns a read-only view of the registered devices, in registration order. Callers iterating the view
+     * while other threads may register devices must hold the model's lock.
+     *
+     * @return Unmodifiable view of the devices.
+     */
+    public List<Device> devices() {
+        return Collections.unmodifiableList(devices);
+    }
+
+    /**
+     * Returns the index-based device entry.
+     *
+     * @param index Position of the sought device.
+     * @return Desired device record.
+     */
+    public synchronized Device itemAtIndex(int index) {
+        return devices.get(index);
+    }
+
+    /**
+     * Append a novel device entity to the inventory.
+     *
+     * @param uuid           Unique ID identifying the device.
+     * @param fileName       Title of the boot image file.
+     * @param fileExtension  Extension suffix of the boot image file.
+     * @param totalSpaceGB    Total space allocated to the device.
+     * @param freeSpaceGB     Available unused space.
+     * @param lastUsed       Timestamp indicating the last instant the device was accessed.
+     * @throws IllegalArgumentException Thrown when a device with the same UUID is already registered.
+     */
+    public synchronized void appendNewDeviceEntry(UUID uuid, String fileName, String fileExtension, double totalSpaceGB, double freeSpaceGB, ZonedDateTime lastUsed) {
+        ensureIndexed();
+
+        if (devicesById.containsKey(uuid)) {
+            throw new IllegalArgumentException("Device " + uuid + " is already registered");
+        }
+
+        Device device = new Device(uuid, fileName, fileExtension, totalSpaceGB, freeSpaceGB, lastUsed);
+        device.attachTo(this);
+        devices.add(device);
+        addToIndexes(device);
+    }
+
+    /**
+     * Refreshes the live capacity figures of a device without persisting them.
+     *
+     * @param device       Device whose figures changed.
+     * @param totalSpaceGB Capacity of the device's disk image. Null if unknown.
+     * @param freeSpaceGB  Unallocated part of that capacity. Null if unknown.
+     */
+    public synchronized void updateDeviceSpace(Device device, Double totalSpaceGB, Double freeSpaceGB) {
+        device.setTotalSpaceGB(totalSpaceGB);
+        device.setFreeSpaceGB(freeSpaceGB);
+    }
+
+    /**
+     * Stamps the moment a device was last used without persisting it.
+     *
+     * @param device   Device that was used.
+     * @param lastUsed Moment of use.
+     */
+    public synchronized void updateLastUsed(Device device, ZonedDateTime lastUsed) {
+        device.setLastUsed(lastUsed);
+    }
+
+    /**
+     * Updates the file path attribute tied to the designated device record.
+     *
+     * @param index          Index position mapping to the targeted device entry.
+     * @param newFilePath    Fresh boot image file path.
+     */
+    public synchronized void editDeviceBootImagePath(int index, String newFilePath) {
+        devices.get(index).updateBootImageFilePath(newFilePath);
+    }
+
+    /**
+     * Persists the settings edited on a registered device.
+     *
+     * @param device Device whose properties were changed.
+     * @throws IOException Propagated from lower level IO layer.
+     */
+    public void editDeviceProperties(Device device) throws IOException {
+        requireRegistered(device);
+        serializeToJsonFile();
+    }
+
+    private void requireRegistered(Device device) {
+        if (searchById(device.getId()) != device) {
+            throw new IllegalArgumentException("Device " + device.getId() + " is not registered");
+        }
+    }
+
+    /**
+     * Locates the device exhibit referenced by the furnished UUID token.
+     *
+     * @param id Identifier uniquely pinpointing a solitary device.
+     * @return Requested device record. Null if none found.
+     */
+  
+    public synchronized Device searchById(UUID id) {
+        ensureIndexed();
+        return devicesById.get(id);
+    }
+
+    /**
+     * Runs a filtered, sorted and paginated query over the registered devices.
+     *
+     * <p>Range filters and sorts on free space or last use are answered from the maintained sorted indexes,
+     * and extension filters from the extension index, so only the candidate devices are visited. Without a
+     * sort column, results follow the order of whichever index served them.</p>
+     *
+     * @param query Criteria to apply.
+     * @return Requested page together with the total number of matches.
+     */
+    public synchronized DeviceQuery.Result query(DeviceQuery query) {
+        ensureIndexed();
+
+        DeviceQuery.Column indexColumn = null;
+        Collection<Device> candidates;
+
+        if (query.hasFreeSpaceRange() && (query.getSortColumn() == DeviceQuery.Column.FREE_SPACE || !query.hasLastUsedWindow())) {
+            indexColumn = DeviceQuery.Column.FREE_SPACE;
+            candidates = range(devicesByFreeSpace,
+                query.getMinFreeSpaceGB() == null ? null : probe(query.getMinFreeSpaceGB(), null, LOWEST_ID),
+                query.getMaxFreeSpaceGB() == null ? null : probe(query.getMaxFreeSpaceGB(), null, HIGHEST_ID));
+        } else if (query.hasLastUsedWindow()) {
+            indexColumn = DeviceQuery.Column.LAST_USED;
+            candidates = range(devicesByLastUsed,
+                query.getUsedAfter() == null ? null : probe(0, query.getUsedAfter(), LOWEST_ID),
+                query.getUsedBefore() == null ? null : probe(0, query.getUsedBefore(), HIGHEST_ID));
+        } else if (query.getFileExtension() != null) {
+            candidates = devicesByExtension.getOrDefault(query.getFileExtension(), List.of());
+        } else if (query.getSortColumn() == DeviceQuery.Column.FREE_SPACE) {
+            indexColumn = DeviceQuery.Column.FREE_SPACE;
+            candidates = devicesByFreeSpace;
+        } else if (query.getSortColumn() == DeviceQuery.Column.LAST_USED) {
+            indexColumn = DeviceQuery.Column.LAST_USED;
+            candidates = devicesByLastUsed;
+        } else {
+            candidates = devices;
+        }
+
+        boolean presorted = query.getSortColumn() == null || query.getSortColumn() == indexColumn;
+        if (presorted && query.isDescending() && candidates instanceof NavigableSet) {
+            candidates = ((NavigableSet<Device>) candidates).descendingSet();
+        }
+
+        if (presorted) {
+            // Already in order: count every match but only keep the ones on the requested page
+            List<Device> page = new ArrayList<>(Math.min(query.getLimit(), 1024));
+            long pageEnd = (long) query.getOffset() + query.getLimit();
+            int matches = 0;
+
+            for (Device device : candidates) {
+                if (query.matches(device)) {
+                    if (matches >= query.getOffset() && matches < pageEnd) {
+                        page.add(device);
+                    }
+                    ++matches;
+                }
+            }
+
+            return new DeviceQuery.Result(page, matches);
+        }
+
+        Comparator<Device> order = query.isDescending() ? query.getSortColumn().comparator().reversed() : query.getSortColumn().comparator();
+        Stream<Device> stream = candidates.size() >= PARALLEL_QUERY_THRESHOLD ? candidates.parallelStream() : candidates.stream();
+        List<Device> sorted = stream.filter(query::matches).sorted(order).collect(Collectors.toList());
+
+        int from = Math.min(query.getOffset(), sorted.size());
+        int to = (int) Math.min((long) from + query.getLimit(), sorted.size());
+        return new DeviceQuery.Result(new ArrayList<>(sorted.subList(from, to)), sorted.size());
+    }
+
+    /**
+     * Rebuilds the lookup indexes from the current list of devices. Devices repeating an already registered
+     * UUID, which only a hand-edited configuration file can contain, are dropped with a warning.
+     */
+    public synchronized void reindex() {
+        devicesById = new HashMap<>(devices.size() * 2);
+        devicesByExtension = new HashMap<>();
+        devicesByFreeSpace = new TreeSet<>(DeviceQuery.Column.FREE_SPACE.comparator());
+        devicesByLastUsed = new TreeSet<>(DeviceQuery.Column.LAST_USED.comparator());
+
+        for (Iterator<Device> iterator = devices.iterator(); iterator.hasNext(); ) {
+            Device device = iterator.next();
+
+            if (devicesById.containsKey(device.getId())) {
+                LOGGER.warning("Dropping device " + device.getFileName() + " with duplicate identifier " + device.getId());
+                iterator.remove();
+                continue;
+            }
+
+            device.attachTo(this);
+            addToIndexes(device);
+        }
+    }
+
+    /**
+     * Applies a change to fields the indexes are keyed on, re-filing the device around it. Called by the device's setters.
+     *
+     * @param device Registered device being changed.
+     * @param newId  Identifier the device will carry after the change.
+     * @param change Mutation of the device's fields.
+     * @throws IllegalArgumentException Thrown when the new identifier belongs to another device.
+     */
+    synchronized void rekey(Device device, UUID newId, Runnable change) {
+        if (devicesById == null) {
+            change.run();
+            return;
+        }
+
+        Device holder = devicesById.get(newId);
+        if (holder != null && holder != device) {
+            throw new IllegalArgumentException("Device " + newId + " is already registered");
+        }
+
+        UUID oldId = device.getId();
+        String oldExtension = extensionKey(device);
+
+        // Sorted indexes must never see a key change while the device is still filed under the old one
+        devicesByFreeSpace.remove(device);
+        devicesByLastUsed.remove(device);
+
+        try {
+            change.run();
+        } finally {
+            devicesByFreeSpace.add(device);
+            devicesByLastUsed.add(device);
+
+            // Hashed indexes only need touching when their own key moved
+            if (!Objects.equals(oldId, device.getId())) {
+                devicesById.remove(oldId, device);
+                devicesById.put(device.getId(), device);
+            }
+
+            if (!oldExtension.equals(extensionKey(device))) {
+                List<Device> bucket = devicesByExtension.get(oldExtension);
+                if (bucket != null) {
+                    bucket.remove(device);
+                }
+                devicesByExtension.computeIfAbsent(extensionKey(device), key -> new ArrayList<>()).add(device);
+            }
+        }
+    }
+
+    private void ensureIndexed() {
+        if (devicesById == null) {
+            reindex();
+        }
+    }
+
+    private void addToIndexes(Device device) {
+        devicesById.put(device.getId(), device);
+        devicesByExtension.computeIfAbsent(extensionKey(device), key -> new ArrayList<>()).add(device);
+        devicesByFreeSpace.add(device);
+        devicesByLastUsed.add(device);
+    }
+
+    private static String extensionKey(Device device) {
+        return device.getFileExtension() == null ? "" : device.getFileExtension().toLowerCase(Locale.ROOT);
+    }
+
+    private static Device probe(double freeSpaceGB, ZonedDateTime lastUsed, UUID id) {
+        return new Device(id, null, null, 0, freeSpaceGB, lastUsed);
+    }
+
+    private static NavigableSet<Device> range(NavigableSet<Device> index, Device from, Device to) {
+        if (from == null && to == null) {
+            return index;
+        } else if (from == null) {
+            return index.headSet(to, true);
+        } else if (to == null) {
+            return index.tailSet(from, true);
+        }
+
+        // An inverted range matches nothing rather than tripping the TreeSet bounds check
+        return index.comparator().compare(from, to) > 0 ? Collections.emptyNavigableSet() : index.subSet(from, true, to, true);
+    }
+
+    /**
+     * Stamps a freshly captured snapshot on a registered device and persists it.
+     *
+     * @param device    Device the snapshot belongs to.
+     * @param sizeBytes On-disk size of the compressed snapshot file.
+     * @throws IOException Propagated from lower level IO layer.
+     */
+    public synchronized void recordSnapshot(Device device, long sizeBytes) throws IOException {
+        requireRegistered(device);
+        device.recordSnapshot(sizeBytes);
+        serializeToJsonFile();
+    }
+
+    /**
+     * Deletes the snapshot of a registered device and persists the cleared metadata.
+     *
+     * @param device Device whose snapshot is discarded.
+     * @throws IOException Propagated from lower level IO layer.
+     */
+    public synchronized void discardSnapshot(Device device) throws IOException {
+        requireRegistered(device);
+        DeviceSnapshot.delete(device);
+        serializeToJsonFile();
+    }
+
+    /**
+     * Discards warm boot snapshots that were captured before the cutoff. The cleared metadata is persisted
+     * once all stale snapshots have been deleted, so the same devices are not pruned again after a restart.
+     *
+     * @param cutoff Snapshots created before this instant are considered stale.
+     * @return Number of snapshots removed.
+     * @throws IOException Propagated from lower level IO layer.
+     */
+    public synchronized int pruneStaleSnapshots(ZonedDateTime cutoff) throws IOException {
+        int pruned = 0;
+
+        try {
+            for (Device device : devices) {
+                if (!device.hasSnapshot()) {
+                    continue;
+                }
+
+                if (device.getSnapshotCreated().isBefore(cutoff)) {
+                    DeviceSnapshot.delete(device);
+                    ++pruned;
+                }
+            }
+        } finally {
+            // Snapshots deleted before a failure are gone from disk, so their metadata is written back regardless
+            if (pruned > 0) {
+                serializeToJsonFile();
+            }
+        }
+
+        return pruned;
+    }
+
+    /**
+     * Serializes the JSON payload to persisted storage.
+     *
+     * @throws IOException Propagated from lower level IO layer.
+     */
+  
+    public void serializeToJsonFile() throws IOException {
+        Path filePath = Paths.get("device_config.json").toAbsolutePath();
+        File jsonFile = filePath.toFile();
+
+        if (!jsonFile.exists()) {
+            jsonFile.createNewFile();
+        } else {
+            Files.deleteIfExists(filePath);
+        }
+
+        String serializedJson = gsonBuilder().setPrettyPrinting().create().toJson(this);
+        Files.write(filePath, serializedJson.getBytes());
+    }
+
+    /**
+     * Materializes a deserialized JSON payload sourced from a file.
+     *
+     * @return Populated devices data model derived from the file.
+     * @throws IOException Thrown when unable to read file.
+     */
+
+    public static DevicesDataModel deserializeFromJsonFile() throws IOException {
+        Path filePath = Paths.get("device_config.json").toAbsolutePath();
+        String serializedJson = Files.readString(filePath);
+        return gsonBuilder().create().fromJson(serializedJson, DevicesDataModel.class);
+    }
+
+    private static GsonBuilder gsonBuilder() {
+        // java.time is closed to reflection on recent JDKs, so timestamps travel as ISO-8601 strings
+        return new GsonBuilder().registerTypeAdapter(ZonedDateTime.class, new ZonedDateTimeAdapter().nullSafe());
+    }
+
+    /**
+     * Loads and indexes the persisted devices on the given executor, keeping the calling thread free.
+     *
+     * @param executor Executor the file is read and parsed on.
+     * @return Future completing with the indexed model, or an empty model if nothing has been saved yet.
+     */
+    public static CompletableFuture<DevicesDataModel> deserializeFromJsonFileAsync(Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                DevicesDataModel model = Files.exists(Paths.get("device_config.json").toAbsolutePath())
+                    ? deserializeFromJsonFile()
+                    : new DevicesDataModel();
+
+                model.reindex();
+                return model;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    private static class ZonedDateTimeAdapter extends TypeAdapter<ZonedDateTime> {
+
+        @Override
+        public void write(JsonWriter out, ZonedDateTime value) throws IOException {
+            out.value(value.format(DateTimeFormatter.ISO_ZONED_DATE_TIME));
+        }
+
+        @Override
+        public ZonedDateTime read(JsonReader in) throws IOException {
+            return ZonedDateTime.parse(in.nextString(), DateTimeFormatter.ISO_ZONED_DATE_TIME);
+        }
+    }
+}
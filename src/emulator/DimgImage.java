@@ -0,0 +1,601 @@
+package emulator;
+
+import com.github.luben.zstd.Zstd;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Read-only view over a {@code .dimg} disk image made of independently compressed fixed-size chunks.
+ *
+ * <p>A read only inflates the chunks it overlaps. Inflated chunks live in a cache shared by every open
+ * image and bounded by a byte budget, and once a reader is seen walking an image sequentially the chunks
+ * ahead of it are inflated in parallel on a shared pool, with a chunk never inflated twice at once. All-zero
+ * chunks are not stored at all and read from one shared zero buffer per image. The file layout is:</p>
+ *
+ * <pre>
+ *   header   magic, version, codec, chunk size, logical size, chunk count, index offset
+ *   chunks   compressed chunk payloads, back to back
+ *   index    per chunk: offset, stored length, storage kind
+ * </pre>
+ */
+public class DimgImage implements DiskImage {
+
+    // Constants
+    static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    private static final long MAGIC = 0x44494D4700000000L; // "DIMG\0\0\0\0"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES + Byte.BYTES;
+    private static final byte STORED_ZERO = 0;
+    private static final byte STORED_COMPRESSED = 1;
+    private static final byte STORED_RAW = 2;
+    private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+    private static final int PREFETCH_CHUNKS = 8;
+    private static final long CACHE_BUDGET_BYTES = 128L * 1024 * 1024;
+    private static final int ZSTD_LEVEL = 3;
+
+    private static final ChunkCache CHUNK_CACHE = new ChunkCache(CACHE_BUDGET_BYTES);
+    private static final Map<ChunkKey, CompletableFuture<ByteBuffer>> LOADING = new ConcurrentHashMap<>();
+    private static final ExecutorService PREFETCH_POOL = Executors.newFixedThreadPool(
+        Math.max(2, Runtime.getRuntime().availableProcessors()),
+        runnable -> {
+            Thread thread = new Thread(runnable, "dimg-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    /**
+     * Compression schemes a {@code .dimg} chunk can be stored with. The ordinal is written to the header,
+     * so new codecs are only ever appended.
+     */
+    enum Codec {
+        DEFLATE,
+        LZ4,
+        ZSTD
+    }
+
+    // Member Variables
+    private final FileChannel channel;
+    private final String imageIdentity;
+    private final Codec codec;
+    private final int chunkSize;
+    private final long logicalSize;
+    private final long[] chunkOffsets;
+    private final int[] chunkLengths;
+    private final byte[] chunkKinds;
+    private final ByteBuffer zeroChunk;
+    private volatile long sequentialEnd = -1;
+
+    private DimgImage(FileChannel channel, String imageIdentity) throws IOException {
+        this.channel = channel;
+        this.imageIdentity = imageIdentity;
+
+        ByteBuffer header = readFully(0, HEADER_SIZE);
+        if (header.getLong() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a DIMG disk image.");
+        }
+
+        int codecOrdinal = header.getInt();
+        chunkSize = header.getInt();
+        logicalSize = header.getLong();
+        int chunkCount = header.getInt();
+        long indexOffset = header.getLong();
+
+        if (codecOrdinal < 0 || codecOrdinal >= Codec.values().length || chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE
+            || logicalSize < 0 || chunkCount != (logicalSize + chunkSize - 1) / chunkSize
+            || indexOffset < HEADER_SIZE || indexOffset + (long) chunkCount * INDEX_ENTRY_SIZE > channel.size()) {
+            throw new IOException("Corrupt DIMG disk image header.");
+        }
+
+        codec = Codec.values()[codecOrdinal];
+        ByteBuffer index = readFully(indexOffset, chunkCount * INDEX_ENTRY_SIZE);
+        chunkOffsets = new long[chunkCount];
+        chunkLengths = new int[chunkCount];
+        chunkKinds = new byte[chunkCount];
+        boolean hasZeroChunks = false;
+
+        for (int i = 0; i < chunkCount; ++i) {
+            chunkOffsets[i] = index.getLong();
+            chunkLengths[i] = index.getInt();
+            chunkKinds[i] = index.get();
+
+            if (chunkKinds[i] == STORED_ZERO) {
+                hasZeroChunks = true;
+            } else if ((chunkKinds[i] != STORED_COMPRESSED && chunkKinds[i] != STORED_RAW)
+                || chunkOffsets[i] < HEADER_SIZE || chunkLengths[i] < 0 || chunkOffsets[i] + chunkLengths[i] > indexOffset
+                || (chunkKinds[i] == STORED_RAW && chunkLengths[i] != uncompressedLength(i))) {
+                throw new IOException("Corrupt DIMG disk image index entry " + i + ".");
+            }
+        }
+
+        zeroChunk = hasZeroChunks ? ByteBuffer.allocate(chunkSize).asReadOnlyBuffer() : null;
+    }
+
+    /**
+     * Opens a {@code .dimg} image for reading.
+     *
+     * @param imagePath Location of the image.
+     * @return Opened image.
+     * @throws IOException Thrown when the file is unreadable or not a DIMG image.
+     */
+    public static DimgImage open(Path imagePath) throws IOException {
+        Path realPath = imagePath.toRealPath();
+        String identity = realPath + ":" + Files.size(realPath) + ":" + Files.getLastModifiedTime(realPath).toMillis();
+        FileChannel channel = FileChannel.open(realPath, StandardOpenOption.READ);
+
+        try {
+            return new DimgImage(channel, identity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Converts a raw disk image into a {@code .dimg} image from the command line.
+     *
+     * <p>Arguments: source raw image, destination {@code .dimg} image, codec (default LZ4) and chunk size
+     * in bytes (default 65536).</p>
+     *
+     * @param args Command line arguments.
+     * @throws IOException Propagated from lower level IO layer.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DimgImage <raw image> <dimg image> [DEFLATE|LZ4|ZSTD] [chunk size]");
+            System.exit(2);
+        }
+
+        Path rawImage = Paths.get(args[0]);
+        Path dimgImage = Paths.get(args[1]);
+        Codec codec = args.length > 2 ? Codec.valueOf(args[2].toUpperCase(Locale.ROOT)) : Codec.LZ4;
+        int chunkSize = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_CHUNK_SIZE;
+
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+            System.err.println("Chunk size must be between 1 and " + MAX_CHUNK_SIZE + " bytes.");
+            System.exit(2);
+        }
+
+        long start = System.nanoTime();
+        convert(rawImage, dimgImage, codec, chunkSize);
+
+        try (DimgImage converted = open(dimgImage)) {
+            System.out.println(String.format("Wrote %s: %d bytes for a %d byte disk (%d allocated) in %d ms",
+                dimgImage, Files.size(dimgImage), converted.size(), converted.allocatedBytes(), (System.nanoTime() - start) / 1_000_000));
+        }
+    }
+
+    /**
+     * Converts a raw {@code .img} disk image into a {@code .dimg} image.
+     *
+     * @param rawImage  Source raw image.
+     * @param dimgImage Destination image, replaced if it exists.
+     * @param codec     Compression applied to every chunk.
+     * @param chunkSize Uncompressed size of a chunk in bytes.
+     * @throws IOException Propagated from lower level IO layer.
+     */
+    public static void convert(Path rawImage, Path dimgImage, Codec codec, int chunkSize) throws IOException {
+        Path parent = dimgImage.toAbsolutePath().getParent();
+        Path tempPath = Files.createTempFile(parent, dimgImage.getFileName().toString(), ".tmp");
+
+        try {
+            try (FileChannel in = FileChannel.open(rawImage, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(tempPath, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeImage(in, out, codec, chunkSize);
+            }
+
+            Files.move(tempPath, dimgImage, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * Returns the size of the disk as seen by the guest.
+     *
+     * @return Uncompressed size in bytes.
+     */
+    @Override
+    public long size() {
+        return logicalSize;
+    }
+
+    /**
+     * Counts the bytes of the disk that hold data, leaving out chunks that were entirely zero.
+     *
+     * @return Allocated bytes.
+     */
+    @Override
+    public long allocatedBytes() {
+        long allocated = 0;
+
+        for (int i = 0; i < chunkKinds.length; ++i) {
+            if (chunkKinds[i] != STORED_ZERO) {
+                allocated += uncompressedLength(i);
+            }
+        }
+
+        return allocated;
+    }
+
+    /**
+     * Copies disk contents into the destination buffer, inflating only the chunks that overlap the request.
+     *
+     * @param position Offset within the disk.
+     * @param dst      Destination buffer, filled up to its limit or the end of the disk.
+     * @return Number of bytes copied, or -1 if the position lies past the end of the disk.
+     * @throws IOException Thrown when a chunk cannot be read or inflated.
+     */
+    @Override
+    public int read(long position, ByteBuffer dst) throws IOException {
+        if (position >= logicalSize) {
+            return -1;
+        }
+
+        boolean sequential = position == sequentialEnd;
+        long start = position;
+
+        while (dst.hasRemaining() && position < logicalSize) {
+            int chunkIndex = (int) (position / chunkSize);
+            int chunkOffset = (int) (position % chunkSize);
+
+            ByteBuffer chunk = chunk(chunkIndex).duplicate();
+            chunk.position(chunkOffset);
+
+            int count = Math.min(chunk.remaining(), dst.remaining());
+            chunk.limit(chunkOffset + count);
+            dst.put(chunk);
+
+            position += count;
+        }
+
+        sequentialEnd = position;
+        if (sequential) {
+            prefetch((int) (position / chunkSize));
+        }
+
+        return (int) (position - start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer chunk(int chunkIndex) throws IOException {
+        if (chunkKinds[chunkIndex] == STORED_ZERO) {
+            return zeroChunk.duplicate().limit(uncompressedLength(chunkIndex));
+        }
+
+        ChunkKey key = new ChunkKey(imageIdentity, chunkIndex);
+        ByteBuffer cached = CHUNK_CACHE.get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        // Wait for a load already under way, typically a prefetch, rather than inflating the chunk a second time
+        CompletableFuture<ByteBuffer> load = new CompletableFuture<>();
+        CompletableFuture<ByteBuffer> pending = LOADING.putIfAbsent(key, load);
+
+        return pending != null ? await(pending) : load(key, chunkIndex, load);
+    }
+
+    private void prefetch(int firstChunk) {
+        int lastChunk = Math.min(firstChunk + PREFETCH_CHUNKS, chunkKinds.length);
+
+        for (int chunkIndex = firstChunk; chunkIndex < lastChunk; ++chunkIndex) {
+            ChunkKey key = new ChunkKey(imageIdentity, chunkIndex);
+
+            if (chunkKinds[chunkIndex] == STORED_ZERO || CHUNK_CACHE.contains(key)) {
+                continue;
+            }
+
+            int target = chunkIndex;
+            CompletableFuture<ByteBuffer> load = new CompletableFuture<>();
+
+            if (LOADING.putIfAbsent(key, load) == null) {
+                PREFETCH_POOL.execute(() -> {
+                    try {
+                        load(key, target, load);
+                    } catch (IOException ignore) {
+                        // The foreground read reports the failure if it ever reaches this chunk
+                    }
+                });
+            }
+        }
+    }
+
+    private ByteBuffer load(ChunkKey key, int chunkIndex, CompletableFuture<ByteBuffer> load) throws IOException {
+        try {
+            // A load that finished between the cache miss and claiming the chunk has already filled the cache
+            ByteBuffer inflated = CHUNK_CACHE.get(key);
+
+            if (inflated == null) {
+                inflated = inflate(chunkIndex).asReadOnlyBuffer();
+                CHUNK_CACHE.put(key, inflated);
+            }
+
+            load.complete(inflated);
+            return inflated;
+        } catch (IOException | RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            LOADING.remove(key, load);
+        }
+    }
+
+    private static ByteBuffer await(CompletableFuture<ByteBuffer> load) throws IOException {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    private ByteBuffer inflate(int chunkIndex) throws IOException {
+        int length = uncompressedLength(chunkIndex);
+        ByteBuffer inflated = ByteBuffer.allocate(length);
+
+        if (chunkKinds[chunkIndex] == STORED_RAW) {
+            inflated.put(readFully(chunkOffsets[chunkIndex], chunkLengths[chunkIndex]));
+            return inflated.flip();
+        }
+
+        byte[] compressed = readFully(chunkOffsets[chunkIndex], chunkLengths[chunkIndex]).array();
+        decompress(codec, compressed, inflated.array(), chunkIndex);
+        return inflated;
+    }
+
+    private int uncompressedLength(int chunkIndex) {
+        return (int) Math.min(chunkSize, logicalSize - (long) chunkIndex * chunkSize);
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated DIMG disk image.");
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    private static void writeImage(FileChannel in, FileChannel out, Codec codec, int chunkSize) throws IOException {
+        long logicalSize = in.size();
+        int chunkCount = (int) ((logicalSize + chunkSize - 1) / chunkSize);
+        ByteBuffer index = ByteBuffer.allocate(chunkCount * INDEX_ENTRY_SIZE);
+        ByteBuffer raw = ByteBuffer.allocate(chunkSize);
+        byte[] compressed = new byte[maxCompressedLength(codec, chunkSize)];
+
+        out.position(HEADER_SIZE);
+
+        for (int chunkIndex = 0; chunkIndex < chunkCount; ++chunkIndex) {
+            raw.clear();
+            raw.limit((int) Math.min(chunkSize, logicalSize - (long) chunkIndex * chunkSize));
+
+            while (raw.hasRemaining()) {
+                if (in.read(raw) < 0) {
+                    throw new IOException("Raw image shrank during conversion.");
+                }
+            }
+            raw.flip();
+
+            if (isAllZero(raw.array(), raw.limit())) {
+                index.putLong(0).putInt(0).put(STORED_ZERO);
+                continue;
+            }
+
+            int compressedLength = compress(codec, raw.array(), raw.limit(), compressed);
+            long offset = out.position();
+
+            // Incompressible chunks are stored as-is so reads never pay for a useless inflate
+            if (compressedLength < 0 || compressedLength >= raw.limit()) {
+                writeFully(out, raw);
+                index.putLong(offset).putInt(raw.limit()).put(STORED_RAW);
+            } else {
+                writeFully(out, ByteBuffer.wrap(compressed, 0, compressedLength));
+                index.putLong(offset).putInt(compressedLength).put(STORED_COMPRESSED);
+            }
+        }
+
+        long indexOffset = out.position();
+        writeFully(out, index.flip());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putLong(MAGIC).putInt(VERSION).putInt(codec.ordinal()).putInt(chunkSize)
+            .putLong(logicalSize).putInt(chunkCount).putLong(indexOffset);
+        out.write(header.flip(), 0);
+        out.force(true);
+    }
+
+    private static int maxCompressedLength(Codec codec, int chunkSize) {
+        switch (codec) {
+            case LZ4:
+                return LZ4Factory.fastestInstance().fastCompressor().maxCompressedLength(chunkSize);
+            case ZSTD:
+                return (int) Zstd.compressBound(chunkSize);
+            default:
+                return chunkSize + chunkSize / 1000 + 64;
+        }
+    }
+
+    private static int compress(Codec codec, byte[] source, int length, byte[] destination) {
+        if (codec == Codec.LZ4) {
+            LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+            return compressor.compress(source, 0, length, destination, 0, destination.length);
+        }
+
+        if (codec == Codec.ZSTD) {
+            long compressedLength = Zstd.compressByteArray(destination, 0, destination.length, source, 0, length, ZSTD_LEVEL);
+            return Zstd.isError(compressedLength) ? -1 : (int) compressedLength;
+        }
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(source, 0, length);
+            deflater.finish();
+            int compressedLength = deflater.deflate(destination);
+            return deflater.finished() ? compressedLength : -1;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void decompress(Codec codec, byte[] compressed, byte[] destination, int chunkIndex) throws IOException {
+        int inflatedLength;
+
+        if (codec == Codec.LZ4) {
+            // The safe decompressor bounds every read by the compressed length, so a corrupt chunk cannot overrun it
+            LZ4SafeDecompressor decompressor = LZ4Factory.fastestInstance().safeDecompressor();
+            try {
+                inflatedLength = decompressor.decompress(compressed, 0, compressed.length, destination, 0, destination.length);
+            } catch (LZ4Exception e) {
+                throw new IOException("Corrupt chunk " + chunkIndex + " in DIMG disk image.", e);
+            }
+        } else if (codec == Codec.ZSTD) {
+            // Decompression is bounded by the destination length; corrupt input comes back as an error code
+            long result = Zstd.decompressByteArray(destination, 0, destination.length, compressed, 0, compressed.length);
+            if (Zstd.isError(result)) {
+                throw new IOException("Corrupt chunk " + chunkIndex + " in DIMG disk image: " + Zstd.getErrorName(result) + ".");
+            }
+            inflatedLength = (int) result;
+        } else {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                inflatedLength = 0;
+
+                while (inflatedLength < destination.length && !inflater.finished()) {
+                    int count = inflater.inflate(destination, inflatedLength, destination.length - inflatedLength);
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    inflatedLength += count;
+                }
+
+                if (!inflater.finished()) {
+                    inflatedLength = -1;
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt chunk " + chunkIndex + " in DIMG disk image.", e);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        if (inflatedLength != destination.length) {
+            throw new IOException("Corrupt chunk " + chunkIndex + " in DIMG disk image.");
+        }
+    }
+
+    private static boolean isAllZero(byte[] data, int length) {
+        for (int i = 0; i < length; ++i) {
+            if (data[i] != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Cache key identifying one chunk of one specific image file.
+     */
+    private static final class ChunkKey {
+
+        private final String imageIdentity;
+        private final int chunkIndex;
+
+        ChunkKey(String imageIdentity, int chunkIndex) {
+            this.imageIdentity = imageIdentity;
+            this.chunkIndex = chunkIndex;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ChunkKey)) {
+                return false;
+            }
+            ChunkKey that = (ChunkKey) o;
+            return chunkIndex == that.chunkIndex && imageIdentity.equals(that.imageIdentity);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(imageIdentity, chunkIndex);
+        }
+    }
+
+    /**
+     * LRU of inflated chunks bounded by the total number of bytes it retains.
+     */
+    private static final class ChunkCache {
+
+        private final long budgetBytes;
+        private final LinkedHashMap<ChunkKey, ByteBuffer> chunks = new LinkedHashMap<>(1024, 0.75f, true);
+        private long retainedBytes;
+
+        ChunkCache(long budgetBytes) {
+            this.budgetBytes = budgetBytes;
+        }
+
+        synchronized ByteBuffer get(ChunkKey key) {
+            return chunks.get(key);
+        }
+
+        synchronized boolean contains(ChunkKey key) {
+            return chunks.containsKey(key);
+        }
+
+        synchronized void put(ChunkKey key, ByteBuffer chunk) {
+            ByteBuffer previous = chunks.put(key, chunk);
+            retainedBytes += chunk.capacity() - (previous == null ? 0 : previous.capacity());
+
+            Iterator<ByteBuffer> iterator = chunks.values().iterator();
+            while (retainedBytes > budgetBytes && iterator.hasNext()) {
+                retainedBytes -= iterator.next().capacity();
+                iterator.remove();
+            }
+        }
+    }
+}
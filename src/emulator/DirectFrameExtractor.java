@@ -0,0 +1,215 @@
+package emulator;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads raw BGR24 frames from the named pipe the emulator writes its display to and keeps the latest one
+ * around for painting.
+ */
+public class DirectFrameExtractor {
+
+    // Constants
+    private static final Logger LOGGER = Logger.getLogger(DirectFrameExtractor.class.getName());
+    static final Path DEFAULT_PIPE = Paths.get("my_pipe");
+    static final int DEFAULT_WIDTH = 800;
+    static final int DEFAULT_HEIGHT = 600;
+    private static final int REPAINT_INTERVAL_MILLIS = 100;
+
+    // Member Variables
+    private final Path pipe;
+    private final int width;
+    private final int height;
+    private final UUID deviceId;
+    private final DeviceResourceSampler resourceSampler;
+    private final BufferedImage[] frames = new BufferedImage[2];
+    private volatile BufferedImage lastFrame;
+    private volatile boolean stopFetchingFrames;
+    private Thread readerThread;
+
+    /**
+     * Class constructor taking the pipe to read and the frame geometry the emulator writes.
+     *
+     * @param pipe   Path of the named pipe.
+     * @param width  Frame width in pixels.
+     * @param height Frame height in pixels.
+     */
+    public DirectFrameExtractor(Path pipe, int width, int height) {
+        this(pipe, width, height, null, null);
+    }
+
+    /**
+     * Class constructor that additionally accounts every frame read from the pipe against a device.
+     *
+     * @param pipe            Path of the named pipe.
+     * @param width           Frame width in pixels.
+     * @param height          Frame height in pixels.
+     * @param deviceId        Device the frames belong to.
+     * @param resourceSampler Sampler receiving the frame rate and display pipe throughput. May be null.
+     */
+    public DirectFrameExtractor(Path pipe, int width, int height, UUID deviceId, DeviceResourceSampler resourceSampler) {
+        this.pipe = pipe;
+        this.deviceId = deviceId;
+        this.resourceSampler = resourceSampler;
+        this.width = width;
+        this.height = height;
+
+        // Two frames are alternated so the one being painted is never the one being decoded into
+        frames[0] = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        frames[1] = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    public static void main(String[] args) {
+        DirectFrameExtractor extractor = new DirectFrameExtractor(DEFAULT_PIPE, DEFAULT_WIDTH, DEFAULT_HEIGHT);
+
+        SwingUtilities.invokeLater(() -> extractor.showWindow("Direct Frame Extractor").setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE));
+    }
+
+    /**
+     * Starts reading frames and shows them in a new window, repainted with the latest frame ten times a second.
+     * Closing the window stops the reader. Must be called on the EDT.
+     *
+     * @param title Window title.
+     * @return Shown window.
+     */
+    public JFrame showWindow(String title) {
+        JFrame frame = new JFrame(title);
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame.setSize(width, height);
+        frame.setLocationRelativeTo(null);
+
+        JLabel label = new JLabel();
+        frame.add(label, BorderLayout.CENTER);
+
+        Timer repaintTimer = new Timer(REPAINT_INTERVAL_MILLIS, actionEvent -> {
+            BufferedImage latest = getLatestFrame();
+
+            if (latest != null) {
+                label.setIcon(new ImageIcon(latest));
+                label.repaint();
+            }
+        });
+
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                repaintTimer.stop();
+                stop();
+            }
+        });
+
+        start();
+        repaintTimer.start();
+        frame.setVisible(true);
+        return frame;
+    }
+
+    /**
+     * Starts reading frames on a background daemon thread.
+     */
+    public synchronized void start() {
+        if (readerThread != null) {
+            return;
+        }
+
+        readerThread = new Thread(this::readFrames, "frame-pipe-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    /**
+     * Asks the reader thread to stop once the frame in progress has been read.
+     */
+    public void stop() {
+        stopFetchingFrames = true;
+    }
+
+    /**
+     * Returns the most recently decoded frame.
+     *
+     * @return Latest frame. Null until the first complete frame has been read.
+     */
+    public BufferedImage getLatestFrame() {
+        return lastFrame;
+    }
+
+    private void readFrames() {
+        // Opening a FIFO for reading blocks until the emulator opens it for writing
+        try (FileChannel channel = FileChannel.open(pipe, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(3 * width * height);
+            int[] pixels = new int[width * height];
+            int next = 0;
+
+            while (!stopFetchingFrames) {
+                if (!readFrame(channel, buffer)) {
+                    break;
+                }
+
+                decodeBgrFrame(buffer, width, height, pixels);
+
+                BufferedImage decoded = frames[next];
+                decoded.setRGB(0, 0, width, height, pixels, 0, width);
+                lastFrame = decoded;
+                next ^= 1;
+
+                if (resourceSampler != null) {
+                    // Pipe traffic is display throughput, not disk I/O, so it gets its own counter
+                    resourceSampler.recordFrame(deviceId, buffer.limit());
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Frame pipe " + pipe + " could not be read", e);
+        }
+    }
+
+    /**
+     * Fills the buffer with one whole frame; pipe reads may return partial frames.
+     *
+     * @return False once the writer has closed the pipe.
+     */
+    private static boolean readFrame(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+
+        buffer.flip();
+        return true;
+    }
+
+    /**
+     * Converts a packed BGR24 frame into packed RGB pixels.
+     *
+     * @param buffer Raw frame bytes, three per pixel in blue-green-red order.
+     * @param width  Frame width in pixels.
+     * @param height Frame height in pixels.
+     * @param pixels Destination array of at least {@code width * height} entries.
+     */
+    static void decodeBgrFrame(ByteBuffer buffer, int width, int height, int[] pixels) {
+        int offset = 0;
+
+        for (int i = 0, n = width * height; i < n; ++i) {
+            int b = buffer.get(offset++) & 0xFF;
+            int g = buffer.get(offset++) & 0xFF;
+            int r = buffer.get(offset++) & 0xFF;
+
+            pixels[i] = (r << 16) | (g << 8) | b;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package emulator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Random-access, read-only view over the disk of a device, independent of how the image is stored.
+ */
+public interface DiskImage extends Closeable {
+
+    /**
+     * Copies disk contents into the destination buffer.
+     *
+     * @param position Offset within the disk.
+     * @param dst      Destination buffer, filled up to its limit or the end of the disk.
+     * @return Number of bytes copied, or -1 if the position lies past the end of the disk.
+     * @throws IOException Thrown when the image cannot be read.
+     */
+    int read(long position, ByteBuffer dst) throws IOException;
+
+    /**
+     * Returns the size of the disk as seen by the guest.
+     *
+     * @return Size in bytes.
+     * @throws IOException Thrown when the image cannot be inspected.
+     */
+    long size() throws IOException;
+
+    /**
+     * Counts the bytes of the disk that are backed by stored data.
+     *
+     * @return Allocated bytes.
+     * @throws IOException Thrown when the image cannot be inspected.
+     */
+    long allocatedBytes() throws IOException;
+
+    /**
+     * Tells whether a file holds a guest disk that {@link #open} can read. Archives, optical media and
+     * firmware packages carry no disk of their own, so their capacity and free space are unknown.
+     *
+     * @param imagePath Location of the image.
+     * @return True for {@code .dimg} and raw {@code .img} images.
+     */
+    static boolean isDiskImage(Path imagePath) {
+        FileTypes fileType = FileTypes.forFileName(imagePath.getFileName().toString());
+        return fileType == FileTypes.DIMAGEDISK || fileType == FileTypes.IMG;
+    }
+
+    /**
+     * Opens a disk image with the backend matching its file type.
+     *
+     * @param imagePath Location of the image.
+     * @return Opened image.
+     * @throws IOException Thrown when the file is unreadable, not a disk image, or not in the format its extension claims.
+     */
+    static DiskImage open(Path imagePath) throws IOException {
+        if (!isDiskImage(imagePath)) {
+            throw new IOException("Not a disk image: " + imagePath.getFileName());
+        }
+
+        if (FileTypes.forFileName(imagePath.getFileName().toString()) == FileTypes.DIMAGEDISK) {
+            return DimgImage.open(imagePath);
+        }
+
+        return RawDiskImage.open(imagePath);
+    }
+}
@@ -0,0 +1,364 @@
+package emulator;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Main application window listing the registered devices.
+ *
+ * <p>The window paints a placeholder straight away while the device configuration is loaded and indexed
+ * on a background thread; the device table replaces the placeholder once the model is ready. Dialogs are
+ * built on first use and reused afterwards.</p>
+ */
+public class EmulatorMainWindow extends JFrame {
+
+    // Constants
+    static final String EXIT_AFTER_STARTUP_FLAG = "--exit-after-startup";
+    private static final String PLACEHOLDER_CARD = "placeholder";
+    private static final String DEVICES_CARD = "devices";
+
+    // Member Variables
+    private final StartupTimings startupTimings;
+    private final boolean exitAfterStartup;
+    private final CardLayout cardLayout = new CardLayout();
+    private final JPanel cards = new JPanel(cardLayout);
+    private final DeviceTableModel deviceTableModel = new DeviceTableModel();
+    private final JTable deviceTable = new JTable(deviceTableModel);
+    private final JButton newDeviceButton = new JButton("New Device...");
+    private final JButton showDisplayButton = new JButton("Show Display");
+    private DevicesDataModel devicesDataModel;
+    private DeviceCreatorGui deviceCreatorGui;
+    private DeviceSettingsGui deviceSettingsGui;
+    private DeviceResourceSampler resourceSampler;
+
+    /**
+     * Builds the window shell. Only lightweight components are created here; the device data arrives later through {@link #onDevicesLoaded}.
+     *
+     * @param startupTimings   Recorder collecting the startup phase durations.
+     * @param exitAfterStartup Print the startup timings and exit once the devices are shown.
+     */
+    public EmulatorMainWindow(StartupTimings startupTimings, boolean exitAfterStartup) {
+        super("Android Open Source Emulator");
+        this.startupTimings = startupTimings;
+        this.exitAfterStartup = exitAfterStartup;
+
+        JLabel placeholder = new JLabel("Loading devices...", SwingConstants.CENTER);
+        cards.add(placeholder, PLACEHOLDER_CARD);
+        cards.add(new JScrollPane(deviceTable), DEVICES_CARD);
+
+        JPanel toolbar = new JPanel(new FlowLayout(FlowLayout.LEADING));
+        toolbar.add(newDeviceButton);
+        toolbar.add(showDisplayButton);
+        newDeviceButton.setEnabled(false);
+        showDisplayButton.setEnabled(false);
+
+        Container contentPane = getContentPane();
+        contentPane.add(toolbar, BorderLayout.NORTH);
+        contentPane.add(cards, BorderLayout.CENTER);
+
+        wireListeners();
+
+        setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+        setSize(900, 600);
+        setLocationRelativeTo(null);
+    }
+
+    public static void main(String[] args) {
+        StartupTimings startupTimings = new StartupTimings();
+        boolean exitAfterStartup = Arrays.asList(args).contains(EXIT_AFTER_STARTUP_FLAG);
+
+        // Start reading the configuration before the first frame is even built
+        ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "device-config-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        CompletableFuture<DevicesDataModel> loadedModel = DevicesDataModel.deserializeFromJsonFileAsync(loader)
+            .whenComplete((model, error) -> startupTimings.mark("config loaded"));
+        loader.shutdown();
+
+        SwingUtilities.invokeLater(() -> {
+            EmulatorMainWindow window = new EmulatorMainWindow(startupTimings, exitAfterStartup);
+            startupTimings.mark("window built");
+
+            window.setVisible(true);
+
+            // Queued behind the paint requests raised by showing the window, so this marks it becoming responsive
+            SwingUtilities.invokeLater(() -> startupTimings.mark("first interactive window"));
+
+            loadedModel.whenComplete((model, error) -> SwingUtilities.invokeLater(() -> window.onDevicesLoaded(model, error)));
+        });
+    }
+
+    /**
+     * Swaps the placeholder for the device table once the configuration has been loaded.
+     *
+     * @param model Loaded model. Null if loading failed.
+     * @param error Failure raised while loading. Null on success.
+     */
+    void onDevicesLoaded(DevicesDataModel model, Throwable error) {
+        if (error != null) {
+            JOptionPane.showMessageDialog(this, "Unable to read device configuration.", "Error", JOptionPane.ERROR_MESSAGE);
+            model = new DevicesDataModel();
+        }
+
+        devicesDataModel = model;
+        deviceTableModel.setDevicesDataModel(model);
+        new DeviceControllerGui(this, model);
+
+        // Live disk figures only start flowing once there is a model to publish them into
+        resourceSampler = new DeviceResourceSampler(model, EmulatorMainWindow::bootImagePath);
+        resourceSampler.addDeviceStatsListener(deviceTableModel::devicesUpdated);
+
+        cardLayout.show(cards, DEVICES_CARD);
+        newDeviceButton.setEnabled(true);
+
+        startupTimings.mark("devices shown");
+        startupTimings.log();
+
+        if (exitAfterStartup) {
+            // Used by the startup measurement harness, which reads the phases from standard output
+            startupTimings.print(System.out);
+            System.exit(0);
+        }
+
+        // Queued behind the table's first paint; the sampler then waits a full interval before its first pass
+        SwingUtilities.invokeLater(resourceSampler::start);
+    }
+
+    /**
+     * Returns the sampler collecting live statistics for the loaded devices.
+     *
+     * @return Running sampler. Null until the devices have been loaded.
+     */
+    DeviceResourceSampler getResourceSampler() {
+        return resourceSampler;
+    }
+
+    private static Path bootImagePath(Device device) {
+        return device.getBootImage() == null || device.getBootImage().isEmpty() ? null : Paths.get(device.getBootImage());
+    }
+
+    /**
+     * Method attaching listeners to UI components.
+     */
+    private void wireListeners() {
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (resourceSampler != null) {
+                    resourceSampler.close();
+                }
+            }
+        });
+
+        newDeviceButton.addActionListener(actionEvent -> {
+            try {
+                deviceCreator().chooseBootImage();
+                deviceTableModel.refresh();
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(EmulatorMainWindow.this, "Error writing device configuration.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+
+        showDisplayButton.addActionListener(actionEvent -> {
+            int row = deviceTable.getSelectedRow();
+
+            if (row >= 0) {
+                showDisplay(deviceTableModel.deviceAt(row));
+            }
+        });
+
+        deviceTable.getSelectionModel().addListSelectionListener(e ->
+            showDisplayButton.setEnabled(resourceSampler != null && deviceTable.getSelectedRow() >= 0));
+
+        deviceTable.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int row = deviceTable.getSelectedRow();
+
+                if (e.getClickCount() == 2 && row >= 0) {
+                    deviceSettings().showFor(deviceTableModel.deviceAt(row));
+                    deviceTableModel.fireTableRowsUpdated(row, row);
+                }
+            }
+        });
+
+        deviceTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = deviceTable.columnAtPoint(e.getPoint());
+
+                if (column >= 0 && devicesDataModel != null) {
+                    deviceTableModel.toggleSort(deviceTable.convertColumnIndexToModel(column));
+                }
+            }
+        });
+    }
+
+    /**
+     * Opens a window showing the display pipe of a device, with its frame rate and pipe throughput accounted by the sampler.
+     *
+     * @param device Device whose display is shown.
+     */
+    private void showDisplay(Device device) {
+        int width = device.getScreenWidth() == null || device.getScreenWidth() <= 0 ? DirectFrameExtractor.DEFAULT_WIDTH : device.getScreenWidth();
+        int height = device.getScreenHeight() == null || device.getScreenHeight() <= 0 ? DirectFrameExtractor.DEFAULT_HEIGHT : device.getScreenHeight();
+
+        new DirectFrameExtractor(DirectFrameExtractor.DEFAULT_PIPE, width, height, device.getId(), resourceSampler)
+            .showWindow(device.getFileName());
+    }
+
+    private DeviceCreatorGui deviceCreator() {
+        if (deviceCreatorGui == null) {
+            deviceCreatorGui = new DeviceCreatorGui(this, devicesDataModel);
+        }
+
+        return deviceCreatorGui;
+    }
+
+    private DeviceSettingsGui deviceSettings() {
+        if (deviceSettingsGui == null) {
+            deviceSettingsGui = new DeviceSettingsGui(this, devicesDataModel);
+        }
+
+        return deviceSettingsGui;
+    }
+}
+
+/**
+ * Table model presenting the devices of a {@link DevicesDataModel} through its query API.
+ *
+ * <p>Rows are the ordered result of the current {@link DeviceQuery}, held as plain references so scrolling
+ * never goes back to the model; sorting re-runs the query, which serves index-backed columns without a full sort.</p>
+ */
+class DeviceTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"File Name", "Extension", "Operating System", "Total Space (GB)", "Free Space (GB)", "Last Used"};
+    private static final String UNKNOWN_SPACE = "Unknown";
+    private static final DeviceQuery.Column[] SORT_COLUMNS = {
+        DeviceQuery.Column.FILE_NAME,
+        DeviceQuery.Column.FILE_EXTENSION,
+        DeviceQuery.Column.OPERATING_SYSTEM,
+        DeviceQuery.Column.TOTAL_SPACE,
+        DeviceQuery.Column.FREE_SPACE,
+        DeviceQuery.Column.LAST_USED
+    };
+
+    private DevicesDataModel devicesDataModel;
+    private DeviceQuery query = new DeviceQuery();
+    private List<Device> rows = List.of();
+
+    void setDevicesDataModel(DevicesDataModel devicesDataModel) {
+        this.devicesDataModel = devicesDataModel;
+        refresh();
+    }
+
+    /**
+     * Replaces the query the table is showing and reloads its rows.
+     *
+     * @param query New filter and sort order.
+     */
+    void setQuery(DeviceQuery query) {
+        this.query = query;
+        refresh();
+    }
+
+    /**
+     * Sorts on the given view column, flipping the direction if the table is already sorted on it.
+     *
+     * @param columnIndex Index of the clicked column.
+     */
+    void toggleSort(int columnIndex) {
+        DeviceQuery.Column column = SORT_COLUMNS[columnIndex];
+        boolean descending = query.getSortColumn() == column && !query.isDescending();
+        setQuery(query.sortedBy(column, descending));
+    }
+
+    /**
+     * Re-runs the current query, picking up added devices and changed values.
+     */
+    void refresh() {
+        rows = devicesDataModel == null ? List.of() : devicesDataModel.query(query).getDevices();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Reacts to refreshed disk figures. A table ordered or filtered on space is re-queried since rows may move;
+     * otherwise only the affected rows are repainted.
+     *
+     * @param deviceIds Devices whose figures changed.
+     */
+    void devicesUpdated(Set<UUID> deviceIds) {
+        if (query.getSortColumn() == DeviceQuery.Column.TOTAL_SPACE || query.getSortColumn() == DeviceQuery.Column.FREE_SPACE
+            || query.hasFreeSpaceRange()) {
+            refresh();
+            return;
+        }
+
+        for (int row = 0; row < rows.size(); ++row) {
+            if (deviceIds.contains(rows.get(row).getId())) {
+                fireTableRowsUpdated(row, row);
+            }
+        }
+    }
+
+    Device deviceAt(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Device device = rows.get(rowIndex);
+
+        switch (columnIndex) {
+            case 0:
+                return device.getFileName();
+            case 1:
+                return device.getFileExtension();
+            case 2:
+                return device.getOperatingSystem();
+            case 3:
+                return spaceOrUnknown(device.getTotalSpaceGB());
+            case 4:
+                return spaceOrUnknown(device.getFreeSpaceGB());
+            default:
+                return device.getLastUsed();
+        }
+    }
+
+    private static Object spaceOrUnknown(Double spaceGB) {
+        return spaceGB == null ? UNKNOWN_SPACE : spaceGB;
+    }
+}
@@ -0,0 +1,46 @@
+package emulator;
+
+/**
+ * Boot image formats a device can be created from, each with the file chooser filter matching its extensions.
+ */
+enum FileTypes {
+    DIMAGEDISK("DIMG Disk Images (*.dimg)", ".dimg"),
+    TAR("Tar Archives (*.tar)", ".tar"),
+    TARGZIP("Compressed Tar Archive (*.tar.gz,*.tgz)", ".tar.gz", ".tgz"),
+    IMG("Disk Images (*.img)", ".img"),
+    ISO("Optical Disc Images (*.iso)", ".iso"),
+    MD5TARBALL("MD5 Checksummed Tarballs (*.tar.md5, *.TAR.MD5)", ".tar.md5"),
+    MD1("MD1 Summed Binaries (*.md1)", ".md1");
+
+    private final String description;
+    private final ChoosableFileFilterImpl choosableFileFilter;
+
+    FileTypes(String description, String... extensions) {
+        this.description = description;
+        this.choosableFileFilter = new ChoosableFileFilterImpl(description, extensions);
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public ChoosableFileFilterImpl getChoosableFileFilter() {
+        return choosableFileFilter;
+    }
+
+    /**
+     * Resolves the type of a file from its name.
+     *
+     * @param fileName Name of the file, with its extension.
+     * @return Matching type. Null if the extension is not recognized.
+     */
+    public static FileTypes forFileName(String fileName) {
+        for (FileTypes fileType : values()) {
+            if (fileType.choosableFileFilter.matches(fileName)) {
+                return fileType;
+            }
+        }
+
+        return null;
+    }
+}
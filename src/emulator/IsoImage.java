@@ -0,0 +1,794 @@
+package emulator;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Read-only view over an ISO9660 optical disc image, used to boot x86 Android ISOs in place.
+ *
+ * <p>The reader understands the primary volume, Joliet supplementary volumes and Rock Ridge names,
+ * and exposes the El Torito boot image and individual files as random-access channels backed directly
+ * by the image, so nothing is extracted. Parsed directories are kept in a bounded LRU shared by every
+ * open image, keyed on the image's identity, so booting the same ISO again skips re-parsing.</p>
+ *
+ * <p>Joliet and plain ISO9660 images resolve directories through the path table. The path table only
+ * records the short ISO9660 names, so Rock Ridge images resolve them by walking down from the root
+ * through the cached directory listings instead.</p>
+ */
+public class IsoImage implements Closeable {
+
+    // Constants
+    static final int SECTOR_SIZE = 2048;
+    private static final int VIRTUAL_SECTOR_SIZE = 512;
+    private static final int FIRST_DESCRIPTOR_SECTOR = 16;
+    private static final int MAX_DESCRIPTORS = 64;
+    private static final int DIRECTORY_CACHE_CAPACITY = 256;
+    private static final int MAX_CONTINUATION_AREAS = 8;
+    private static final int MAX_METADATA_LENGTH = 16 * 1024 * 1024;
+    private static final int MIN_RECORD_LENGTH = 34;
+    private static final byte TYPE_BOOT_RECORD = 0;
+    private static final byte TYPE_PRIMARY = 1;
+    private static final byte TYPE_SUPPLEMENTARY = 2;
+    private static final byte TYPE_TERMINATOR = (byte) 255;
+    private static final int FLAG_DIRECTORY = 0x02;
+    private static final String EL_TORITO_ID = "EL TORITO SPECIFICATION";
+    private static final List<String> KERNEL_CANDIDATES = List.of("/kernel", "/vmlinuz", "/isolinux/vmlinuz", "/boot/vmlinuz");
+    private static final List<String> INITRD_CANDIDATES = List.of("/initrd.img", "/initrd", "/isolinux/initrd.img", "/boot/initrd.img");
+
+    private static final Map<DirectoryKey, List<Entry>> DIRECTORY_CACHE = new LinkedHashMap<>(DIRECTORY_CACHE_CAPACITY, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DirectoryKey, List<IsoImage.Entry>> eldest) {
+            return size() > DIRECTORY_CACHE_CAPACITY;
+        }
+    };
+
+    /**
+     * Naming scheme the image's directory records are read with.
+     */
+    enum Naming {
+        ISO9660,
+        JOLIET,
+        ROCK_RIDGE
+    }
+
+    // Member Variables
+    private final FileChannel channel;
+    private final String imageIdentity;
+    private final Naming naming;
+    private final Entry root;
+    private final Map<String, Long> pathTable;
+    private final long bootCatalogSector;
+
+    private IsoImage(FileChannel channel, String imageIdentity) throws IOException {
+        this.channel = channel;
+        this.imageIdentity = imageIdentity;
+
+        ByteBuffer primary = null;
+        ByteBuffer joliet = null;
+        long catalogSector = -1;
+
+        for (int i = 0; i < MAX_DESCRIPTORS; ++i) {
+            ByteBuffer descriptor = readSectors(FIRST_DESCRIPTOR_SECTOR + i, 1);
+            byte type = descriptor.get(0);
+
+            if (!"CD001".equals(ascii(descriptor, 1, 5))) {
+                throw new IOException("Not an ISO9660 image.");
+            }
+
+            if (type == TYPE_TERMINATOR) {
+                break;
+            } else if (type == TYPE_PRIMARY && primary == null) {
+                primary = descriptor;
+            } else if (type == TYPE_SUPPLEMENTARY && joliet == null && isJoliet(descriptor)) {
+                joliet = descriptor;
+            } else if (type == TYPE_BOOT_RECORD && ascii(descriptor, 7, 32).trim().equals(EL_TORITO_ID)) {
+                catalogSector = Integer.toUnsignedLong(descriptor.getInt(0x47));
+            }
+        }
+
+        if (primary == null) {
+            throw new IOException("ISO9660 image has no primary volume descriptor.");
+        }
+
+        Entry primaryRoot = parseRecord(primary, 156, Naming.ISO9660, "");
+
+        // Rock Ridge announces itself through an SP entry in the system use area of the root's "." record
+        if (hasRockRidge(primaryRoot)) {
+            // The path table holds the mangled ISO9660 names, not the Rock Ridge ones, so it cannot serve lookups
+            naming = Naming.ROCK_RIDGE;
+            root = primaryRoot;
+            pathTable = Collections.emptyMap();
+        } else if (joliet != null) {
+            naming = Naming.JOLIET;
+            root = parseRecord(joliet, 156, Naming.JOLIET, "");
+            pathTable = readPathTable(joliet, Naming.JOLIET);
+        } else {
+            naming = Naming.ISO9660;
+            root = primaryRoot;
+            pathTable = readPathTable(primary, Naming.ISO9660);
+        }
+
+        bootCatalogSector = catalogSector;
+    }
+
+    /**
+     * Opens an ISO image for reading.
+     *
+     * @param imagePath Location of the {@code .iso} file.
+     * @return Opened image.
+     * @throws IOException Thrown when the file is unreadable, not an ISO9660 image, or malformed.
+     */
+    public static IsoImage open(Path imagePath) throws IOException {
+        Path realPath = imagePath.toRealPath();
+        String identity = realPath + ":" + Files.size(realPath) + ":" + Files.getLastModifiedTime(realPath).toMillis();
+        FileChannel channel = FileChannel.open(realPath, StandardOpenOption.READ);
+
+        try {
+            return new IsoImage(channel, identity);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        } catch (RuntimeException e) {
+            // Every field is bounds checked while parsing; this only guards against a check that was missed
+            channel.close();
+            throw new IOException("Malformed ISO9660 image.", e);
+        }
+    }
+
+    public Naming getNaming() {
+        return naming;
+    }
+
+    /**
+     * Indicates whether the image carries an El Torito boot catalog.
+     *
+     * @return True if the image is bootable.
+     */
+    public boolean isBootable() {
+        return bootCatalogSector >= 0;
+    }
+
+    /**
+     * Opens the default El Torito boot image as a random-access channel.
+     *
+     * @return Channel over the boot image. Null if the image is not bootable.
+     * @throws IOException Thrown when the boot catalog is unreadable or invalid.
+     */
+    public SeekableByteChannel openBootImage() throws IOException {
+        if (!isBootable()) {
+            return null;
+        }
+
+        ByteBuffer catalog = readSectors(bootCatalogSector, 1);
+
+        // Validation entry: header id 0x01 followed by the 0x55 0xAA key bytes
+        if (catalog.get(0) != 0x01 || catalog.get(30) != 0x55 || catalog.get(31) != (byte) 0xAA) {
+            throw new IOException("Invalid El Torito validation entry.");
+        }
+
+        int defaultEntry = 32;
+        if (catalog.get(defaultEntry) != (byte) 0x88) {
+            return null;
+        }
+
+        int mediaType = catalog.get(defaultEntry + 1) & 0x0F;
+        int sectorCount = Short.toUnsignedInt(catalog.getShort(defaultEntry + 6));
+        long loadSector = Integer.toUnsignedLong(catalog.getInt(defaultEntry + 8));
+
+        return openExtent(loadSector, bootImageLength(mediaType, sectorCount));
+    }
+
+    /**
+     * Opens the kernel shipped on the image, probing the locations used by common x86 Android ISOs.
+     *
+     * @return Channel over the kernel. Null if none was found.
+     * @throws IOException Propagated from lower level IO layer.
+     */
+    public SeekableByteChannel openKernel() throws IOException {
+        return openFirstExisting(KERNEL_CANDIDATES);
+    }
+
+    /**
+     * Opens the initial ramdisk shipped on the image, probing the locations used by common x86 Android ISOs.
+     *
+     * @return Channel over the initrd. Null if none was found.
+     * @throws IOException Propagated from lower level IO layer.
+     */
+    public SeekableByteChannel openInitrd() throws IOException {
+        return openFirstExisting(INITRD_CANDIDATES);
+    }
+
+    /**
+     * Opens a file on the image as a random-access channel.
+     *
+     * @param path Absolute path inside the image, using {@code /} as separator.
+     * @return Channel over the file contents.
+     * @throws IOException Thrown when the path does not name a regular file.
+     */
+    public SeekableByteChannel openFile(String path) throws IOException {
+        Entry entry = lookup(path);
+
+        if (entry == null || entry.isDirectory()) {
+            throw new FileNotFoundException(path);
+        }
+
+        return openExtent(entry.extentSector, entry.length);
+    }
+
+    /**
+     * Resolves a path inside the image.
+     *
+     * @param path Absolute path inside the image, using {@code /} as separator.
+     * @return Matching entry. Null if none found.
+     * @throws IOException Propagated from lower level IO layer.
+     */
+    public Entry lookup(String path) throws IOException {
+        String normalized = normalize(path);
+
+        if (normalized.isEmpty()) {
+            return root;
+        }
+
+        int slash = normalized.lastIndexOf('/');
+        String parentPath = slash < 0 ? "" : normalized.substring(0, slash);
+        String name = normalized.substring(slash + 1);
+
+        Entry parent = resolveDirectory(parentPath);
+        if (parent == null) {
+            return null;
+        }
+
+        return findChild(parent, name);
+    }
+
+    /**
+     * Lists the entries of a directory inside the image.
+     *
+     * @param path Absolute path of the directory.
+     * @return Children of the directory, excluding the self and parent records.
+     * @throws IOException Thrown when the path does not name a directory.
+     */
+    public List<Entry> list(String path) throws IOException {
+        Entry directory = resolveDirectory(normalize(path));
+
+        if (directory == null) {
+            throw new FileNotFoundException(path);
+        }
+
+        return readDirectory(directory);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private SeekableByteChannel openFirstExisting(List<String> candidates) throws IOException {
+        for (String candidate : candidates) {
+            Entry entry = lookup(candidate);
+
+            if (entry != null && !entry.isDirectory()) {
+                return openExtent(entry.extentSector, entry.length);
+            }
+        }
+
+        return null;
+    }
+
+    private Entry resolveDirectory(String normalized) throws IOException {
+        if (normalized.isEmpty()) {
+            return root;
+        }
+
+        // The path table locates any directory without walking its ancestors
+        Long extent = pathTable.get(normalized.toLowerCase(Locale.ROOT));
+        if (extent != null) {
+            return directoryAt(extent, normalized);
+        }
+
+        Entry current = root;
+        for (String component : normalized.split("/")) {
+            current = findChild(current, component);
+
+            if (current == null || !current.isDirectory()) {
+                return null;
+            }
+        }
+
+        return current;
+    }
+
+    private Entry directoryAt(long extentSector, String normalized) throws IOException {
+        // A directory's own "." record, always first in its extent, carries the directory's length
+        ByteBuffer selfRecord = readSectors(extentSector, 1);
+        Entry self = parseRecord(selfRecord, 0, Naming.ISO9660, normalized);
+        String name = normalized.substring(normalized.lastIndexOf('/') + 1);
+
+        return new Entry(name, normalized, extentSector, self.length, true);
+    }
+
+    private Entry findChild(Entry directory, String name) throws IOException {
+        if (directory == null) {
+            return null;
+        }
+
+        boolean caseSensitive = naming == Naming.ROCK_RIDGE;
+
+        for (Entry child : readDirectory(directory)) {
+            if (caseSensitive ? child.name.equals(name) : child.name.equalsIgnoreCase(name)) {
+                return child;
+            }
+        }
+
+        return null;
+    }
+
+    private List<Entry> readDirectory(Entry directory) throws IOException {
+        DirectoryKey key = new DirectoryKey(imageIdentity, naming, directory.extentSector);
+
+        synchronized (DIRECTORY_CACHE) {
+            List<Entry> cached = DIRECTORY_CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ByteBuffer data = readExtent(directory.extentSector, directory.length, "Directory /" + directory.path);
+        List<Entry> children = new ArrayList<>();
+        int offset = 0;
+
+        while (offset < data.limit()) {
+            int recordLength = data.get(offset) & 0xFF;
+
+            // Records never straddle sectors; a zero length pads out to the next one
+            if (recordLength == 0) {
+                offset = (offset / SECTOR_SIZE + 1) * SECTOR_SIZE;
+                continue;
+            }
+
+            checkRecord(data, offset);
+            int nameLength = data.get(offset + 32) & 0xFF;
+            byte firstNameByte = data.get(offset + 33);
+            boolean selfOrParent = nameLength == 1 && (firstNameByte == 0 || firstNameByte == 1);
+
+            if (!selfOrParent) {
+                children.add(parseRecord(data, offset, naming, directory.path));
+            }
+
+            offset += recordLength;
+        }
+
+        List<Entry> unmodifiable = Collections.unmodifiableList(children);
+
+        synchronized (DIRECTORY_CACHE) {
+            DIRECTORY_CACHE.put(key, unmodifiable);
+        }
+
+        return unmodifiable;
+    }
+
+    private Entry parseRecord(ByteBuffer buffer, int offset, Naming recordNaming, String parentPath) throws IOException {
+        checkRecord(buffer, offset);
+
+        ByteBuffer record = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int recordLength = record.get(offset) & 0xFF;
+        long extentSector = Integer.toUnsignedLong(record.getInt(offset + 2));
+        long length = Integer.toUnsignedLong(record.getInt(offset + 10));
+        int flags = record.get(offset + 25) & 0xFF;
+        int nameLength = record.get(offset + 32) & 0xFF;
+
+        String name;
+        if (nameLength == 1 && (record.get(offset + 33) == 0 || record.get(offset + 33) == 1)) {
+            name = "";
+        } else if (recordNaming == Naming.JOLIET) {
+            name = stripVersion(decode(record, offset + 33, nameLength, StandardCharsets.UTF_16BE));
+        } else {
+            name = stripVersion(ascii(record, offset + 33, nameLength));
+        }
+
+        // System use area follows the name, padded to an even offset
+        int systemUseStart = offset + 33 + nameLength + ((nameLength & 1) == 0 ? 1 : 0);
+        int systemUseEnd = offset + recordLength;
+
+        if (recordNaming == Naming.ROCK_RIDGE) {
+            String alternateName = rockRidgeName(record, systemUseStart, systemUseEnd);
+            if (alternateName != null) {
+                name = alternateName;
+            }
+        }
+
+        String path = name.isEmpty() ? parentPath : parentPath.isEmpty() ? name : parentPath + "/" + name;
+        return new Entry(name, path, extentSector, length, (flags & FLAG_DIRECTORY) != 0);
+    }
+
+    private boolean hasRockRidge(Entry primaryRoot) throws IOException {
+        ByteBuffer data = readExtent(primaryRoot.extentSector, Math.min(primaryRoot.length, SECTOR_SIZE), "Root directory");
+
+        // An empty root has no "." record to carry the SP entry; listing it later reports the damage
+        if (data.limit() < MIN_RECORD_LENGTH) {
+            return false;
+        }
+
+        checkRecord(data, 0);
+        int nameLength = data.get(32) & 0xFF;
+        int systemUseStart = 33 + nameLength + ((nameLength & 1) == 0 ? 1 : 0);
+
+        return systemUseStart + 7 <= (data.get(0) & 0xFF)
+            && data.get(systemUseStart) == 'S' && data.get(systemUseStart + 1) == 'P'
+            && data.get(systemUseStart + 4) == (byte) 0xBE && data.get(systemUseStart + 5) == (byte) 0xEF;
+    }
+
+    private Map<String, Long> readPathTable(ByteBuffer descriptor, Naming tableNaming) throws IOException {
+        ByteBuffer le = descriptor.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        long tableSector = Integer.toUnsignedLong(le.getInt(140));
+        ByteBuffer table = readExtent(tableSector, Integer.toUnsignedLong(le.getInt(132)), "Path table");
+        int tableSize = table.limit();
+        List<String> paths = new ArrayList<>();
+        Map<String, Long> extents = new HashMap<>();
+        int offset = 0;
+
+        while (offset + 8 <= tableSize) {
+            int nameLength = table.get(offset) & 0xFF;
+            long extent = Integer.toUnsignedLong(table.getInt(offset + 2));
+            int parentNumber = Short.toUnsignedInt(table.getShort(offset + 6));
+
+            if (offset + 8 + nameLength > tableSize) {
+                throw new IOException("Path table record at offset " + offset + " runs past the end of the table.");
+            }
+
+            String path;
+            if (paths.isEmpty()) {
+                path = "";
+            } else {
+                String name = decode(table, offset + 8, nameLength, tableNaming == Naming.JOLIET ? StandardCharsets.UTF_16BE : StandardCharsets.US_ASCII);
+                String parent = parentNumber >= 1 && parentNumber <= paths.size() ? paths.get(parentNumber - 1) : "";
+                path = parent.isEmpty() ? name : parent + "/" + name;
+            }
+
+            paths.add(path);
+            extents.put(path.toLowerCase(Locale.ROOT), extent);
+            offset += 8 + nameLength + (nameLength & 1);
+        }
+
+        return extents;
+    }
+
+    private String rockRidgeName(ByteBuffer record, int start, int end) throws IOException {
+        StringBuilder name = null;
+        ByteBuffer area = record;
+        int offset = start;
+        int areaEnd = end;
+
+        // Entries that do not fit the record spill into continuation areas chained through CE entries
+        for (int continuations = 0; ; ++continuations) {
+            long continuationSector = -1;
+            int continuationOffset = 0;
+            int continuationLength = 0;
+
+            while (offset + 4 <= areaEnd) {
+                int entryLength = area.get(offset + 2) & 0xFF;
+                if (entryLength < 4 || offset + entryLength > areaEnd) {
+                    break;
+                }
+
+                byte first = area.get(offset);
+                byte second = area.get(offset + 1);
+
+                if (first == 'N' && second == 'M' && entryLength >= 5) {
+                    int flags = area.get(offset + 4) & 0xFF;
+
+                    // Bits 1 and 2 mark the "." and ".." aliases, which carry no name content
+                    if ((flags & 0x06) == 0) {
+                        if (name == null) {
+                            name = new StringBuilder();
+                        }
+                        name.append(ascii(area, offset + 5, entryLength - 5));
+                    }
+                } else if (first == 'C' && second == 'E' && entryLength >= 28) {
+                    continuationSector = Integer.toUnsignedLong(area.getInt(offset + 4));
+                    continuationOffset = area.getInt(offset + 12);
+                    continuationLength = area.getInt(offset + 20);
+                } else if (first == 'S' && second == 'T') {
+                    return name == null ? null : name.toString();
+                }
+
+                offset += entryLength;
+            }
+
+            if (continuationSector < 0 || continuations >= MAX_CONTINUATION_AREAS
+                || continuationOffset < 0 || continuationLength <= 0 || continuationLength > SECTOR_SIZE - continuationOffset) {
+                break;
+            }
+
+            area = readBytes(continuationSector * SECTOR_SIZE + continuationOffset, continuationLength);
+            offset = 0;
+            areaEnd = continuationLength;
+        }
+
+        return name == null ? null : name.toString();
+    }
+
+    private static boolean isJoliet(ByteBuffer descriptor) {
+        // Escape sequences %/@, %/C and %/E select UCS-2 levels 1 to 3
+        return descriptor.get(88) == '%' && descriptor.get(89) == '/'
+            && (descriptor.get(90) == '@' || descriptor.get(90) == 'C' || descriptor.get(90) == 'E');
+    }
+
+    private static long bootImageLength(int mediaType, int sectorCount) {
+        switch (mediaType) {
+            case 1:
+                return 1_228_800L;
+            case 2:
+                return 1_474_560L;
+            case 3:
+                return 2_949_120L;
+            default:
+                return (long) Math.max(sectorCount, 1) * VIRTUAL_SECTOR_SIZE;
+        }
+    }
+
+    private static String normalize(String path) {
+        String normalized = path.replace('\\', '/');
+
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+
+        return normalized;
+    }
+
+    private static String stripVersion(String name) {
+        int semicolon = name.indexOf(';');
+        String stripped = semicolon < 0 ? name : name.substring(0, semicolon);
+        return stripped.endsWith(".") ? stripped.substring(0, stripped.length() - 1) : stripped;
+    }
+
+    private static String ascii(ByteBuffer buffer, int offset, int length) {
+        return decode(buffer, offset, length, StandardCharsets.US_ASCII);
+    }
+
+    private static String decode(ByteBuffer buffer, int offset, int length, Charset charset) {
+        byte[] raw = new byte[length];
+        buffer.duplicate().position(offset).get(raw);
+        return new String(raw, charset);
+    }
+
+    /**
+     * Rejects a directory record whose fixed fields or name do not fit its declared length, or whose length
+     * runs past the buffer, so later reads of its fields stay in bounds.
+     */
+    private static void checkRecord(ByteBuffer buffer, int offset) throws IOException {
+        int recordLength = offset < buffer.limit() ? buffer.get(offset) & 0xFF : 0;
+
+        if (recordLength < MIN_RECORD_LENGTH || recordLength > buffer.limit() - offset) {
+            throw new IOException("Malformed directory record at offset " + offset + ": length " + recordLength + ".");
+        }
+
+        if (33 + (buffer.get(offset + 32) & 0xFF) > recordLength) {
+            throw new IOException("Directory record at offset " + offset + " has a name longer than the record.");
+        }
+    }
+
+    /**
+     * Reads a metadata extent, such as a directory or the path table, into memory after checking that it
+     * lies within the image and is small enough to hold.
+     *
+     * @param sector First sector of the extent.
+     * @param length Length recorded for the extent, as an unsigned value.
+     * @param what   Description of the extent for error messages.
+     */
+    private ByteBuffer readExtent(long sector, long length, String what) throws IOException {
+        if (length > MAX_METADATA_LENGTH) {
+            throw new IOException(what + " claims " + length + " bytes, more than the " + MAX_METADATA_LENGTH + " byte limit.");
+        }
+
+        checkWithinImage(sector, length, what);
+        return readBytes(sector * SECTOR_SIZE, (int) length);
+    }
+
+    private SeekableByteChannel openExtent(long sector, long length) throws IOException {
+        checkWithinImage(sector, length, "Extent at sector " + sector);
+        return new ExtentChannel(sector * SECTOR_SIZE, length);
+    }
+
+    private void checkWithinImage(long sector, long length, String what) throws IOException {
+        // Sectors and lengths are unsigned 32-bit fields, so neither the product nor the sum can overflow a long
+        if (sector * SECTOR_SIZE + length > channel.size()) {
+            throw new IOException(what + " extends past the end of the image.");
+        }
+    }
+
+    private ByteBuffer readSectors(long sector, int count) throws IOException {
+        return readBytes(sector * SECTOR_SIZE, count * SECTOR_SIZE);
+    }
+
+    private ByteBuffer readBytes(long position, int length) throws IOException {
+        // Multi-byte ISO9660 and El Torito fields are read from their little-endian halves
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated ISO image.");
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * A file or directory recorded on the image.
+     */
+    public static final class Entry {
+
+        private final String name;
+        private final String path;
+        private final long extentSector;
+        private final long length;
+        private final boolean directory;
+
+        Entry(String name, String path, long extentSector, long length, boolean directory) {
+            this.name = name;
+            this.path = path;
+            this.extentSector = extentSector;
+            this.length = length;
+            this.directory = directory;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPath() {
+            return "/" + path;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public boolean isDirectory() {
+            return directory;
+        }
+    }
+
+    /**
+     * Cache key identifying one directory of one specific image file.
+     */
+    private static final class DirectoryKey {
+
+        private final String imageIdentity;
+        private final Naming naming;
+        private final long extentSector;
+
+        DirectoryKey(String imageIdentity, Naming naming, long extentSector) {
+            this.imageIdentity = imageIdentity;
+            this.naming = naming;
+            this.extentSector = extentSector;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DirectoryKey)) {
+                return false;
+            }
+            DirectoryKey that = (DirectoryKey) o;
+            return extentSector == that.extentSector && naming == that.naming && imageIdentity.equals(that.imageIdentity);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(imageIdentity, naming, extentSector);
+        }
+    }
+
+    /**
+     * Read-only channel over a contiguous extent of the image.
+     */
+    private class ExtentChannel implements SeekableByteChannel {
+
+        private final long start;
+        private final long length;
+        private long position;
+        private boolean open = true;
+
+        ExtentChannel(long start, long length) {
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            ensureOpen();
+
+            if (position >= length) {
+                return -1;
+            }
+
+            ByteBuffer window = dst.duplicate();
+            window.limit(window.position() + (int) Math.min(dst.remaining(), length - position));
+
+            int count = channel.read(window, start + position);
+            if (count > 0) {
+                dst.position(dst.position() + count);
+                position += count;
+            }
+
+            return count;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            ensureOpen();
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) throws IOException {
+            if (newPosition < 0) {
+                throw new IllegalArgumentException("Negative position: " + newPosition);
+            }
+
+            ensureOpen();
+            position = newPosition;
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            ensureOpen();
+            return length;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open && channel.isOpen();
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        private void ensureOpen() throws ClosedChannelException {
+            if (!isOpen()) {
+                throw new ClosedChannelException();
+            }
+        }
+    }
+}
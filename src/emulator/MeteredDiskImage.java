@@ -0,0 +1,50 @@
+package emulator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Disk image that accounts every read it serves to a device in a {@link DeviceResourceSampler}.
+ * Obtained through {@link DeviceResourceSampler#openDisk(Device)}.
+ */
+class MeteredDiskImage implements DiskImage {
+
+    // Member Variables
+    private final DiskImage image;
+    private final UUID deviceId;
+    private final DeviceResourceSampler resourceSampler;
+
+    MeteredDiskImage(DiskImage image, UUID deviceId, DeviceResourceSampler resourceSampler) {
+        this.image = image;
+        this.deviceId = deviceId;
+        this.resourceSampler = resourceSampler;
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) throws IOException {
+        long readStart = System.nanoTime();
+        int count = image.read(position, dst);
+
+        if (count > 0) {
+            resourceSampler.recordRead(deviceId, count, System.nanoTime() - readStart);
+        }
+
+        return count;
+    }
+
+    @Override
+    public long size() throws IOException {
+        return image.size();
+    }
+
+    @Override
+    public long allocatedBytes() throws IOException {
+        return image.allocatedBytes();
+    }
+
+    @Override
+    public void close() throws IOException {
+        image.close();
+    }
+}
@@ -0,0 +1,125 @@
+package emulator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view over an uncompressed disk image, such as an {@code .img} file, read straight from the file.
+ */
+public class RawDiskImage implements DiskImage {
+
+    // Constants
+    static final int ALLOCATION_BLOCK_SIZE = 4096;
+    private static final int SCAN_BUFFER_SIZE = 256 * ALLOCATION_BLOCK_SIZE;
+
+    // Member Variables
+    private final FileChannel channel;
+
+    private RawDiskImage(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a raw image for reading.
+     *
+     * @param imagePath Location of the image.
+     * @return Opened image.
+     * @throws IOException Thrown when the file is unreadable.
+     */
+    public static RawDiskImage open(Path imagePath) throws IOException {
+        return new RawDiskImage(FileChannel.open(imagePath, StandardOpenOption.READ));
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) throws IOException {
+        long size = channel.size();
+
+        if (position >= size) {
+            return -1;
+        }
+
+        int start = dst.position();
+
+        while (dst.hasRemaining() && position < size) {
+            int count = channel.read(dst, position);
+            if (count < 0) {
+                break;
+            }
+            position += count;
+        }
+
+        return dst.position() - start;
+    }
+
+    @Override
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * Counts the bytes of the disk that hold data by scanning the whole image. See
+     * {@link #allocatedBytes(long, long)}; callers that must not block for long scan in slices instead.
+     *
+     * @return Allocated bytes.
+     * @throws IOException Thrown when the image cannot be read.
+     */
+    @Override
+    public long allocatedBytes() throws IOException {
+        return allocatedBytes(0, channel.size());
+    }
+
+    /**
+     * Counts the bytes within a range that lie in blocks holding data. The JDK exposes no block count for
+     * sparse files, so a block is considered allocated unless all of its bytes are zero; holes read back as
+     * zeros and count as free, the same way a {@code .dimg} leaves out all-zero chunks.
+     *
+     * @param position Offset of the range, rounded down to a block boundary.
+     * @param length   Length of the range. The part past the end of the image is ignored.
+     * @return Allocated bytes within the range.
+     * @throws IOException Thrown when the image cannot be read.
+     */
+    public long allocatedBytes(long position, long length) throws IOException {
+        long start = position - position % ALLOCATION_BLOCK_SIZE;
+        long end = Math.min(position + length, channel.size());
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long allocated = 0;
+
+        for (long offset = start; offset < end; offset += buffer.capacity()) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - offset));
+
+            if (read(offset, buffer) <= 0) {
+                break;
+            }
+
+            buffer.flip();
+            allocated += allocatedBytesIn(buffer);
+        }
+
+        return allocated;
+    }
+
+    private static long allocatedBytesIn(ByteBuffer buffer) {
+        long allocated = 0;
+
+        for (int block = 0; block < buffer.limit(); block += ALLOCATION_BLOCK_SIZE) {
+            int blockEnd = Math.min(block + ALLOCATION_BLOCK_SIZE, buffer.limit());
+
+            for (int i = block; i < blockEnd; ++i) {
+                if (buffer.get(i) != 0) {
+                    allocated += blockEnd - block;
+                    break;
+                }
+            }
+        }
+
+        return allocated;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,60 @@
+package emulator;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Records how long each startup phase took, measured from the moment the JVM process started.
+ */
+class StartupTimings {
+
+    static final String PHASE_LINE_PREFIX = "startup-phase";
+    private static final Logger LOGGER = Logger.getLogger(StartupTimings.class.getName());
+
+    private final Instant processStart = ProcessHandle.current().info().startInstant().orElse(Instant.now());
+    private final Map<String, Duration> phases = new LinkedHashMap<>();
+
+    /**
+     * Stamps the end of a startup phase. Safe to call from any thread.
+     *
+     * @param phase Name of the phase that just completed.
+     */
+    synchronized void mark(String phase) {
+        phases.putIfAbsent(phase, Duration.between(processStart, Instant.now()));
+    }
+
+    /**
+     * Returns the elapsed time from process start to the end of a phase.
+     *
+     * @param phase Name of the phase.
+     * @return Elapsed time. Null if the phase has not been reached yet.
+     */
+    synchronized Duration elapsed(String phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * Writes the recorded phases to the application log.
+     */
+    synchronized void log() {
+        List<String> lines = new ArrayList<>();
+        phases.forEach((phase, duration) -> lines.add(String.format("  %-26s %6d ms", phase, duration.toMillis())));
+        LOGGER.info("Startup timings since process start:\n" + String.join("\n", lines));
+    }
+
+    /**
+     * Writes the recorded phases one per line as {@code startup-phase<TAB>name<TAB>millis}, for tools to parse.
+     *
+     * @param out Stream to write to.
+     */
+    synchronized void print(PrintStream out) {
+        phases.forEach((phase, duration) -> out.println(PHASE_LINE_PREFIX + "\t" + phase + "\t" + duration.toMillis()));
+        out.flush();
+    }
+}